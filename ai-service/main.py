@@ -11,6 +11,8 @@ from config.settings import settings
 from models.schemas import (
     AnomalyRequest,
     AnomalyResponse,
+    BatchForecastRequest,
+    BatchForecastResponse,
     ForecastRequest,
     ForecastResponse,
     QueryRequest,
@@ -91,6 +93,12 @@ async def forecast(request: ForecastRequest) -> ForecastResponse:
     return forecast_service.predict_demand(request)
 
 
+@app.post("/api/ai/forecast/batch", response_model=BatchForecastResponse)
+async def forecast_batch(request: BatchForecastRequest) -> BatchForecastResponse:
+    logger.info("Batch forecast request for %d products", len(request.items))
+    return forecast_service.predict_demand_batch(request)
+
+
 # ── Reorder ──────────────────────────────────────────────────────────────────
 @app.post("/api/ai/reorder", response_model=ReorderResponse)
 async def reorder(request: ReorderRequest) -> ReorderResponse:
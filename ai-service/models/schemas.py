@@ -43,6 +43,11 @@ class ForecastRequest(BaseModel):
     forecast_days: int = Field(default=30, ge=1, le=365)
 
 
+class BatchForecastRequest(BaseModel):
+    """Request body for forecasting many products in one call."""
+    items: List[ForecastRequest] = Field(..., min_length=1, max_length=500)
+
+
 class ReorderRequest(BaseModel):
     """Request body for reorder-point / EOQ calculation."""
     product_id: int
@@ -90,6 +95,12 @@ class ForecastResponse(BaseModel):
     recommendation: str
 
 
+class BatchForecastResponse(BaseModel):
+    """Response for batched forecasting; products that failed are listed, not fatal."""
+    results: List[ForecastResponse]
+    failed: List[int] = Field(default_factory=list)
+
+
 class ReorderResponse(BaseModel):
     """Response for reorder-point calculation."""
     product_id: int
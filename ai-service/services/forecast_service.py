@@ -9,6 +9,8 @@ import pandas as pd
 from sklearn.linear_model import LinearRegression
 
 from models.schemas import (
+    BatchForecastRequest,
+    BatchForecastResponse,
     DayPrediction,
     ForecastRequest,
     ForecastResponse,
@@ -149,6 +151,19 @@ def predict_demand(request: ForecastRequest) -> ForecastResponse:
     )
 
 
+def predict_demand_batch(request: BatchForecastRequest) -> BatchForecastResponse:
+    """Forecast every item of the batch; an item that fails is reported, not raised."""
+    results: List[ForecastResponse] = []
+    failed: List[int] = []
+    for item in request.items:
+        try:
+            results.append(predict_demand(item))
+        except Exception as exc:  # noqa: BLE001 - one bad series must not sink the batch
+            logger.warning("Batch forecast failed for product %s: %s", item.product_id, exc)
+            failed.append(item.product_id)
+    return BatchForecastResponse(results=results, failed=failed)
+
+
 # ─── Helper functions ────────────────────────────────────────────────────────
 
 
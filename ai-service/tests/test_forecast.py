@@ -4,8 +4,8 @@ from datetime import datetime, timedelta
 
 import pytest
 
-from models.schemas import DailyMovement, ForecastRequest
-from services.forecast_service import predict_demand
+from models.schemas import BatchForecastRequest, DailyMovement, ForecastRequest
+from services.forecast_service import predict_demand, predict_demand_batch
 
 
 def _make_historical_data(num_days: int, base_out: int = 10, base_in: int = 3):
@@ -171,3 +171,49 @@ class TestPredictDemandAllZeros:
         assert response.trend == "stable"
         for pred in response.predictions:
             assert pred.predicted_demand == 0.0
+
+
+class TestPredictDemandBatch:
+    """Test forecasting several products in one request."""
+
+    def test_returns_one_result_per_item_in_order(self):
+        request = BatchForecastRequest(
+            items=[
+                ForecastRequest(
+                    product_id=product_id,
+                    product_name=f"Widget {product_id}",
+                    historical_data=_make_historical_data(num_days),
+                    forecast_days=7,
+                )
+                for product_id, num_days in [(1, 30), (2, 3), (3, 0)]
+            ]
+        )
+        response = predict_demand_batch(request)
+
+        assert [r.product_id for r in response.results] == [1, 2, 3]
+        assert response.failed == []
+        for result in response.results:
+            assert len(result.predictions) == 7
+
+    def test_failed_item_is_reported_not_raised(self, monkeypatch):
+        import services.forecast_service as forecast_service
+
+        original = forecast_service.predict_demand
+
+        def flaky(item):
+            if item.product_id == 2:
+                raise ValueError("bad series")
+            return original(item)
+
+        monkeypatch.setattr(forecast_service, "predict_demand", flaky)
+        request = BatchForecastRequest(
+            items=[
+                ForecastRequest(product_id=i, product_name=f"Widget {i}",
+                                historical_data=_make_historical_data(30), forecast_days=7)
+                for i in (1, 2)
+            ]
+        )
+        response = predict_demand_batch(request)
+
+        assert [r.product_id for r in response.results] == [1]
+        assert response.failed == [2]
@@ -0,0 +1,19 @@
+package com.warehouse.inventory.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broadcast over Redis pub/sub when a node changes a cache entry, so every other node drops
+ * its near-cache copy. A {@code null} key means the whole cache was cleared.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    private String origin;
+    private String cacheName;
+    private String key;
+}
@@ -0,0 +1,70 @@
+package com.warehouse.inventory.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Subscribes the {@link TwoLevelCacheManager} to the invalidation channel once the application
+ * is up, retrying while Redis is unreachable. The listener container is not a bean on purpose:
+ * as a bean it would be started with the context and fail startup without Redis. Until the
+ * subscription is live, near-cache entries expire by TTL only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NearCacheInvalidationSubscriber {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final TwoLevelCacheManager cacheManager;
+
+    private RedisMessageListenerContainer container;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureSubscribed();
+    }
+
+    @Scheduled(fixedDelayString = "${cache.near.subscribe-retry-ms:30000}",
+            initialDelayString = "${cache.near.subscribe-retry-ms:30000}")
+    public synchronized void ensureSubscribed() {
+        if (container != null && container.isListening()) {
+            return;
+        }
+        try {
+            if (container == null) {
+                container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(connectionFactory);
+                container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getChannel()));
+                container.afterPropertiesSet();
+            }
+            container.start();
+            log.info("Subscribed to near-cache invalidation channel {}", cacheManager.getChannel());
+        } catch (RuntimeException e) {
+            log.warn("Near-cache invalidation channel unavailable, retrying later: {}", e.getMessage());
+            // A container whose first subscription failed stays half-started; build a fresh one next time
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (container == null) {
+            return;
+        }
+        try {
+            container.destroy();
+        } catch (Exception e) {
+            log.debug("Failed to stop invalidation listener container: {}", e.getMessage());
+        }
+        container = null;
+    }
+}
@@ -0,0 +1,149 @@
+package com.warehouse.inventory.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * A per-node Caffeine cache in front of a shared Redis cache. Reads are served from the near
+ * cache when possible and fall through to Redis on a miss; writes go to both tiers and are
+ * broadcast so other nodes evict their near copy.
+ * <p>
+ * Near-cache entries are keyed by the string form of the cache key, which is also how
+ * Redis keys them, so invalidation messages can name an entry on any node.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache;
+    private final Cache redisCache;
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache,
+                         Cache redisCache, BiConsumer<String, String> invalidationPublisher) {
+        this.name = name;
+        this.nearCache = nearCache;
+        this.redisCache = redisCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return nearCache;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getNearCache() {
+        return nearCache;
+    }
+
+    public Cache getRedisCache() {
+        return redisCache;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String nearKey = nearKey(key);
+        Object value = nearCache.getIfPresent(nearKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = redisCache.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            nearCache.put(nearKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String nearKey = nearKey(key);
+        Object value = nearCache.getIfPresent(nearKey);
+        if (value != null) {
+            return (T) value;
+        }
+        // A value loaded here is new to every node, so there is nothing to invalidate elsewhere
+        T loaded = redisCache.get(key, valueLoader);
+        if (loaded != null) {
+            nearCache.put(nearKey, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // Near tier first: if Redis is down the value is still reused on this node
+        String nearKey = nearKey(key);
+        if (value != null) {
+            nearCache.put(nearKey, value);
+        } else {
+            nearCache.invalidate(nearKey);
+        }
+        redisCache.put(key, value);
+        invalidationPublisher.accept(name, nearKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String nearKey = nearKey(key);
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        if (existing == null || existing.get() == null) {
+            if (value != null) {
+                nearCache.put(nearKey, value);
+            }
+            invalidationPublisher.accept(name, nearKey);
+        } else {
+            nearCache.put(nearKey, existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String nearKey = nearKey(key);
+        nearCache.invalidate(nearKey);
+        redisCache.evict(key);
+        invalidationPublisher.accept(name, nearKey);
+    }
+
+    @Override
+    public void clear() {
+        nearCache.invalidateAll();
+        redisCache.clear();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * Applies an invalidation broadcast by another node; Redis is left untouched.
+     */
+    void evictLocal(String nearKey) {
+        if (nearKey == null) {
+            nearCache.invalidateAll();
+        } else {
+            nearCache.invalidate(nearKey);
+        }
+    }
+
+    private static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+}
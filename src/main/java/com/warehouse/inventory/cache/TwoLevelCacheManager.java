@@ -0,0 +1,121 @@
+package com.warehouse.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of the Redis cache manager in a {@link TwoLevelCache}. Changes made on
+ * this node are published on a Redis channel; messages from other nodes evict the matching
+ * near-cache entry. The near-cache TTL bounds staleness if a message is ever lost.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String DEFAULT_CHANNEL = "cache:invalidate";
+
+    // Same tag Spring Boot puts on the cache meters it registers itself (the bean name)
+    private static final Tags METER_TAGS = Tags.of("cacheManager", "cacheManager");
+
+    private final String origin = UUID.randomUUID().toString();
+    private final CacheManager redisCacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String channel;
+    private final long nearMaxSize;
+    private final Duration nearTtl;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager redisCacheManager, RedisTemplate<String, Object> redisTemplate,
+                                String channel, long nearMaxSize, Duration nearTtl, MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.nearMaxSize = nearMaxSize;
+        this.nearTtl = nearTtl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> createCache(n, redisCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(redisCacheManager.getCacheNames());
+        names.addAll(caches.keySet());
+        return names;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(body instanceof CacheInvalidationMessage)) {
+            return;
+        }
+        CacheInvalidationMessage invalidation = (CacheInvalidationMessage) body;
+        if (origin.equals(invalidation.getOrigin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.evictLocal(invalidation.getKey());
+        }
+    }
+
+    private TwoLevelCache createCache(String name, Cache redisCache) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(nearTtl)
+                .recordStats()
+                .build();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, nearCache, name, METER_TAGS.and("tier", "near"));
+            if (redisCache instanceof RedisCache) {
+                new RedisCacheMetrics((RedisCache) redisCache, METER_TAGS.and("tier", "redis")).bindTo(meterRegistry);
+            }
+        }
+        log.debug("Created two-level cache '{}' (near max size {}, ttl {})", name, nearMaxSize, nearTtl);
+        return new TwoLevelCache(name, nearCache, redisCache, this::publishInvalidation);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidationMessage(origin, cacheName, key));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the near-cache TTL
+            log.warn("Failed to publish cache invalidation for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
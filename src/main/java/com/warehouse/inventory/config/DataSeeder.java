@@ -16,6 +16,7 @@ import com.warehouse.inventory.enums.WarehouseType;
 import com.warehouse.inventory.repository.AlertRepository;
 import com.warehouse.inventory.repository.CategoryRepository;
 import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
 import com.warehouse.inventory.repository.StockMovementRepository;
 import com.warehouse.inventory.repository.SupplierRepository;
 import com.warehouse.inventory.repository.UserRepository;
@@ -49,6 +50,7 @@ public class DataSeeder implements CommandLineRunner {
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
     private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductStockTotalRepository productStockTotalRepository;
     private final StockMovementRepository stockMovementRepository;
     private final AlertRepository alertRepository;
     private final UserRepository userRepository;
@@ -491,6 +493,9 @@ public class DataSeeder implements CommandLineRunner {
                 stockCount++;
             }
         }
+        // Seed rows bypass the stock write path, so derive the totals in one statement
+        warehouseStockRepository.flush();
+        productStockTotalRepository.rebuildAll();
         log.info("Seeded {} warehouse stock records", stockCount);
     }
 
@@ -0,0 +1,42 @@
+package com.warehouse.inventory.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs {@code post-schema-<platform>.sql} once Hibernate has created or updated the schema.
+ * schema-*.sql runs before Hibernate, so statements that need the mapped tables (backfills,
+ * partial indexes) live here instead. Statements must be idempotent.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class PostSchemaInitializer implements InitializingBean {
+
+    private final DataSource dataSource;
+
+    @Value("${spring.sql.init.mode:embedded}")
+    private String initMode;
+
+    @Value("${spring.sql.init.platform:all}")
+    private String platform;
+
+    @Override
+    public void afterPropertiesSet() {
+        ClassPathResource script = new ClassPathResource("post-schema-" + platform + ".sql");
+        if ("never".equalsIgnoreCase(initMode) || !script.exists()) {
+            return;
+        }
+        log.info("Running {}", script.getFilename());
+        new ResourceDatabasePopulator(script).execute(dataSource);
+    }
+}
@@ -1,7 +1,18 @@
 package com.warehouse.inventory.config;
 
-import org.springframework.cache.CacheManager;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.warehouse.inventory.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
@@ -16,37 +27,75 @@ import java.time.Duration;
 
 @Configuration
 @EnableCaching
-public class RedisConfig {
+public class RedisConfig extends CachingConfigurerSupport {
+
+    @Value("${cache.near.max-size:10000}")
+    private long nearCacheMaxSize;
+
+    @Value("${cache.near.ttl-seconds:60}")
+    private long nearCacheTtlSeconds;
+
+    @Value("${cache.near.invalidation-channel:" + TwoLevelCacheManager.DEFAULT_CHANNEL + "}")
+    private String invalidationChannel;
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(valueSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(valueSerializer());
         template.afterPropertiesSet();
         return template;
     }
 
+    /**
+     * Caffeine near cache per node in front of Redis; see {@link TwoLevelCacheManager}.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             RedisTemplate<String, Object> redisTemplate,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
         RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(
-                                new GenericJackson2JsonRedisSerializer()))
+                        RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer()))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(cacheConfig)
-                .withCacheConfiguration("forecasts",
-                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("dashboardData",
-                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(5)))
+                // Keyed by movement version, so the TTL only bounds model drift and orphaned versions
+                .withCacheConfiguration("forecasts", cacheConfig.entryTtl(Duration.ofHours(24)))
+                .withCacheConfiguration("dashboardData", cacheConfig.entryTtl(Duration.ofMinutes(5)))
+                .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, invalidationChannel,
+                nearCacheMaxSize, Duration.ofSeconds(nearCacheTtlSeconds), meterRegistry.getIfAvailable());
+    }
+
+    /**
+     * A cache that cannot reach Redis behaves as a miss and the method runs, instead of the
+     * caller failing; with the near cache in front, results are still reused on this node.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    // GenericJackson2JsonRedisSerializer with java.time support, which its default mapper lacks
+    private static GenericJackson2JsonRedisSerializer valueSerializer() {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return new GenericJackson2JsonRedisSerializer(mapper);
     }
 }
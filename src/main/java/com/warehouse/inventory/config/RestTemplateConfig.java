@@ -1,21 +1,52 @@
 package com.warehouse.inventory.config;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RestTemplateConfig {
 
-    @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
-                .setConnectTimeout(Duration.ofMillis(5000))
-                .setReadTimeout(Duration.ofMillis(5000))
+    @Value("${ai.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${ai.client.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${ai.client.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    /**
+     * Pooled keep-alive client for the AI service; every call reuses a warm connection instead
+     * of paying a TCP handshake. A call waits at most the connect timeout for a free connection.
+     * Read timeouts are set per endpoint by the RestTemplates built on it.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient aiHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMs)
+                        .setConnectionRequestTimeout(connectTimeoutMs)
+                        .build())
+                // Honour the server's Keep-Alive header, and cap idle reuse when it sends none
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMs) : keepAliveMs;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
                 .build();
     }
 }
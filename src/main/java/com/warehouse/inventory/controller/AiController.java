@@ -2,16 +2,16 @@ package com.warehouse.inventory.controller;
 
 import com.warehouse.inventory.dto.request.AiQueryRequest;
 import com.warehouse.inventory.dto.request.ForecastRequest;
-import com.warehouse.inventory.dto.response.AiQueryResponse;
 import com.warehouse.inventory.dto.response.AnomalyResult;
 import com.warehouse.inventory.dto.response.ApiResponse;
-import com.warehouse.inventory.dto.response.ForecastResponse;
 import com.warehouse.inventory.dto.response.ReorderSuggestion;
+import com.warehouse.inventory.entity.Product;
 import com.warehouse.inventory.exception.AiServiceException;
-import com.warehouse.inventory.service.AiIntegrationService;
+import com.warehouse.inventory.service.AiAsyncService;
 import com.warehouse.inventory.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -19,18 +19,29 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.ModelAndView;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class AiController {
 
-    private final AiIntegrationService aiIntegrationService;
+    private static final String TIMEOUT_MESSAGE = "Dịch vụ AI phản hồi quá lâu, vui lòng thử lại sau";
+
+    private final AiAsyncService aiAsyncService;
     private final ProductService productService;
 
+    @Value("${ai.async.timeout-ms:20000}")
+    private long asyncTimeoutMs;
+
     @GetMapping("/ai")
     public String insights(Model model) {
         log.debug("Loading AI insights page");
@@ -47,19 +58,19 @@ public class AiController {
     }
 
     @PostMapping("/ai/forecast")
-    public String runForecast(@ModelAttribute ForecastRequest forecastRequest, Model model) {
+    public DeferredResult<ModelAndView> runForecast(@ModelAttribute ForecastRequest forecastRequest) {
         log.debug("Running AI forecast for product: {}", forecastRequest.getProductId());
-        model.addAttribute("forecastRequest", forecastRequest);
-        model.addAttribute("products", productService.findAll());
-
-        try {
-            ForecastResponse forecast = aiIntegrationService.getForecast(forecastRequest.getProductId());
-            model.addAttribute("forecast", forecast);
-        } catch (AiServiceException e) {
-            model.addAttribute("errorMessage", e.getMessage());
-        }
+        List<Product> products = productService.findAll();
+        // A fresh page per outcome: the timeout may fire while the forecast completes
+        Supplier<ModelAndView> page = () -> new ModelAndView("ai/forecast")
+                .addObject("forecastRequest", forecastRequest)
+                .addObject("products", products);
 
-        return "ai/forecast";
+        return defer(aiAsyncService.getForecast(forecastRequest.getProductId()),
+                (forecast, e) -> e == null
+                        ? page.get().addObject("forecast", forecast)
+                        : page.get().addObject("errorMessage", aiErrorMessage(e)),
+                () -> page.get().addObject("errorMessage", TIMEOUT_MESSAGE));
     }
 
     @GetMapping("/ai/query")
@@ -70,45 +81,85 @@ public class AiController {
     }
 
     @PostMapping("/ai/query")
-    public String processQuery(@ModelAttribute AiQueryRequest queryRequest, Model model) {
+    public DeferredResult<ModelAndView> processQuery(@ModelAttribute AiQueryRequest queryRequest) {
         log.debug("Processing AI query: {}", queryRequest.getQuestion());
-        model.addAttribute("queryRequest", queryRequest);
-
-        try {
-            String language = queryRequest.getLanguage() != null ? queryRequest.getLanguage() : "vi";
-            AiQueryResponse response = aiIntegrationService.queryNaturalLanguage(
-                    queryRequest.getQuestion(), language);
-            model.addAttribute("queryResponse", response);
-        } catch (AiServiceException e) {
-            model.addAttribute("errorMessage", e.getMessage());
-        }
+        Supplier<ModelAndView> page = () -> new ModelAndView("ai/query")
+                .addObject("queryRequest", queryRequest);
 
-        return "ai/query";
+        String language = queryRequest.getLanguage() != null ? queryRequest.getLanguage() : "vi";
+        return defer(aiAsyncService.queryNaturalLanguage(queryRequest.getQuestion(), language),
+                (response, e) -> e == null
+                        ? page.get().addObject("queryResponse", response)
+                        : page.get().addObject("errorMessage", aiErrorMessage(e)),
+                () -> page.get().addObject("errorMessage", TIMEOUT_MESSAGE));
     }
 
     @GetMapping("/api/ai/suggestions")
     @ResponseBody
-    public ResponseEntity<ApiResponse<List<ReorderSuggestion>>> getReorderSuggestions() {
+    public DeferredResult<ResponseEntity<ApiResponse<List<ReorderSuggestion>>>> getReorderSuggestions() {
         log.debug("REST: Getting AI reorder suggestions");
-        try {
-            List<ReorderSuggestion> suggestions = aiIntegrationService.getReorderSuggestions();
-            return ResponseEntity.ok(ApiResponse.success("Gợi ý đặt hàng lại", suggestions));
-        } catch (Exception e) {
-            log.error("Error getting reorder suggestions: {}", e.getMessage());
-            return ResponseEntity.ok(ApiResponse.success("Không có gợi ý", Collections.emptyList()));
-        }
+        return defer(aiAsyncService.getReorderSuggestions(),
+                (suggestions, e) -> {
+                    if (e != null) {
+                        log.error("Error getting reorder suggestions: {}", unwrap(e).getMessage());
+                        return ResponseEntity.ok(ApiResponse.success("Không có gợi ý",
+                                Collections.<ReorderSuggestion>emptyList()));
+                    }
+                    return ResponseEntity.ok(ApiResponse.success("Gợi ý đặt hàng lại", suggestions));
+                },
+                () -> ResponseEntity.ok(ApiResponse.success("Không có gợi ý", Collections.emptyList())));
     }
 
     @GetMapping("/api/ai/anomalies")
     @ResponseBody
-    public ResponseEntity<ApiResponse<List<AnomalyResult>>> getAnomalies() {
+    public DeferredResult<ResponseEntity<ApiResponse<List<AnomalyResult>>>> getAnomalies() {
         log.debug("REST: Getting AI anomaly detection results");
-        try {
-            List<AnomalyResult> anomalies = aiIntegrationService.detectAnomalies();
-            return ResponseEntity.ok(ApiResponse.success("Phát hiện bất thường", anomalies));
-        } catch (AiServiceException e) {
-            log.error("Error detecting anomalies: {}", e.getMessage());
-            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+        return defer(aiAsyncService.detectAnomalies(),
+                (anomalies, e) -> {
+                    if (e != null) {
+                        log.error("Error detecting anomalies: {}", unwrap(e).getMessage());
+                        return ResponseEntity.ok(ApiResponse.<List<AnomalyResult>>error(aiErrorMessage(e)));
+                    }
+                    return ResponseEntity.ok(ApiResponse.success("Phát hiện bất thường", anomalies));
+                },
+                () -> ResponseEntity.ok(ApiResponse.error(TIMEOUT_MESSAGE)));
+    }
+
+    /**
+     * Completes the returned result from the AI call through {@code handler}, or with
+     * {@code onTimeout} when the call outlives the async timeout; the request thread goes back
+     * to Tomcat in the meantime. A timed-out call is cancelled, so one still queued never runs.
+     */
+    private <S, T> DeferredResult<T> defer(CompletableFuture<S> call,
+                                          BiFunction<? super S, Throwable, ? extends T> handler,
+                                          Supplier<T> onTimeout) {
+        DeferredResult<T> deferred = new DeferredResult<>(asyncTimeoutMs);
+        deferred.onTimeout(() -> {
+            deferred.setResult(onTimeout.get());
+            call.cancel(false);
+        });
+        // The cancellation above also reaches the handler; the timeout result already stands
+        call.<T>handle((value, e) -> deferred.isSetOrExpired() ? null : handler.apply(value, e))
+                .whenComplete((value, e) -> {
+                    if (e != null) {
+                        deferred.setErrorResult(unwrap(e));
+                    } else {
+                        deferred.setResult(value);
+                    }
+                });
+        return deferred;
+    }
+
+    // Only AI failures become a message on the page; anything else goes to the error handlers
+    private static String aiErrorMessage(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof AiServiceException) {
+            return cause.getMessage();
         }
+        throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
 }
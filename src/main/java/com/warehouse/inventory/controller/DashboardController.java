@@ -31,6 +31,9 @@ public class DashboardController {
         model.addAttribute("recentActivities", data.getRecentMovements());
         model.addAttribute("categoryBreakdown", data.getCategoryBreakdown());
         model.addAttribute("topProducts", data.getTopProducts());
+        model.addAttribute("trend", data.getTrend());
+        model.addAttribute("generatedAt", data.getGeneratedAt());
+        model.addAttribute("degradedWidgets", data.getDegradedWidgets());
 
         return "dashboard";
     }
@@ -0,0 +1,32 @@
+package com.warehouse.inventory.controller;
+
+import com.warehouse.inventory.dto.response.ApiResponse;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.ProductResponse;
+import com.warehouse.inventory.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Slf4j
+@Controller
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductApiController {
+
+    private final ProductService productService;
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<ApiResponse<CursorPage<ProductResponse>>> list(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.debug("REST: Loading products page, cursor={}", cursor);
+        return ResponseEntity.ok(ApiResponse.success("Danh sách sản phẩm", productService.findPageAsResponse(cursor, size)));
+    }
+}
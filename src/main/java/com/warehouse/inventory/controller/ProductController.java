@@ -1,6 +1,7 @@
 package com.warehouse.inventory.controller;
 
 import com.warehouse.inventory.dto.request.ProductRequest;
+import com.warehouse.inventory.dto.response.CursorPage;
 import com.warehouse.inventory.dto.response.ProductResponse;
 import com.warehouse.inventory.entity.Product;
 import com.warehouse.inventory.service.CategoryService;
@@ -22,7 +23,6 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Controller
@@ -36,17 +36,20 @@ public class ProductController {
     private final StockMovementService stockMovementService;
 
     @GetMapping
-    public String list(@RequestParam(value = "search", required = false) String search, Model model) {
-        log.debug("Loading products list page, search={}", search);
+    public String list(@RequestParam(value = "search", required = false) String search,
+                       @RequestParam(value = "cursor", required = false) String cursor,
+                       @RequestParam(value = "size", required = false) Integer size,
+                       Model model) {
+        log.debug("Loading products list page, search={}, cursor={}", search, cursor);
 
         List<ProductResponse> products;
         if (search != null && !search.trim().isEmpty()) {
-            products = productService.search(search).stream()
-                    .map(productService::toResponse)
-                    .collect(Collectors.toList());
+            products = productService.searchAsResponse(search);
             model.addAttribute("search", search);
         } else {
-            products = productService.findAllAsResponse();
+            CursorPage<ProductResponse> page = productService.findPageAsResponse(cursor, size);
+            products = page.getItems();
+            model.addAttribute("page", page);
         }
 
         model.addAttribute("products", products);
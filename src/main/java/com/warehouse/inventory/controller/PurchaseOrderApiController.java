@@ -0,0 +1,32 @@
+package com.warehouse.inventory.controller;
+
+import com.warehouse.inventory.dto.response.ApiResponse;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.PurchaseOrderResponse;
+import com.warehouse.inventory.service.PurchaseOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Slf4j
+@Controller
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class PurchaseOrderApiController {
+
+    private final PurchaseOrderService purchaseOrderService;
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<ApiResponse<CursorPage<PurchaseOrderResponse>>> list(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.debug("REST: Loading purchase orders page, cursor={}", cursor);
+        return ResponseEntity.ok(ApiResponse.success("Danh sách đơn đặt hàng", purchaseOrderService.findPage(cursor, size)));
+    }
+}
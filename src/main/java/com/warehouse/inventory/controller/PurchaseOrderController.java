@@ -1,6 +1,8 @@
 package com.warehouse.inventory.controller;
 
 import com.warehouse.inventory.dto.request.PurchaseOrderRequest;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.PurchaseOrderResponse;
 import com.warehouse.inventory.entity.PurchaseOrder;
 import com.warehouse.inventory.service.ProductService;
 import com.warehouse.inventory.service.PurchaseOrderService;
@@ -20,7 +22,6 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -34,10 +35,13 @@ public class PurchaseOrderController {
     private final ProductService productService;
 
     @GetMapping
-    public String list(Model model) {
-        log.debug("Loading purchase orders list page");
-        List<PurchaseOrder> orders = purchaseOrderService.findAll();
-        model.addAttribute("orders", orders);
+    public String list(@RequestParam(value = "cursor", required = false) String cursor,
+                       @RequestParam(value = "size", required = false) Integer size,
+                       Model model) {
+        log.debug("Loading purchase orders list page, cursor={}", cursor);
+        CursorPage<PurchaseOrderResponse> page = purchaseOrderService.findPage(cursor, size);
+        model.addAttribute("orders", page.getItems());
+        model.addAttribute("page", page);
         model.addAttribute("activeMenu", "orders");
         return "orders/list";
     }
@@ -0,0 +1,85 @@
+package com.warehouse.inventory.controller;
+
+import com.warehouse.inventory.dto.response.ApiResponse;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.ProductRankingResponse;
+import com.warehouse.inventory.dto.response.StockSummaryResponse;
+import com.warehouse.inventory.enums.RankingMetric;
+import com.warehouse.inventory.repository.projection.CategoryTotal;
+import com.warehouse.inventory.service.CategoryBreakdownService;
+import com.warehouse.inventory.service.ProductRankingService;
+import com.warehouse.inventory.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Controller
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportApiController {
+
+    private final ReportService reportService;
+    private final CategoryBreakdownService categoryBreakdownService;
+    private final ProductRankingService productRankingService;
+
+    @GetMapping("/stock")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<CursorPage<StockSummaryResponse>>> stockReport(
+            @RequestParam(value = "warehouseId", required = false) Long warehouseId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.debug("REST: Loading stock report page, warehouseId={}, cursor={}", warehouseId, cursor);
+        return ResponseEntity.ok(ApiResponse.success("Báo cáo tồn kho",
+                reportService.getStockReport(warehouseId, cursor, size)));
+    }
+
+    @GetMapping("/movements")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<Map<String, Object>>> movementReport(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.debug("REST: Loading movement report {} - {}, cursor={}", startDate, endDate, cursor);
+        return ResponseEntity.ok(ApiResponse.success("Báo cáo xuất nhập kho", reportService.getMovementReport(
+                startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX), cursor, size)));
+    }
+
+    @GetMapping("/categories")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<List<CategoryTotal>>> categoryReport(
+            @RequestParam(value = "rollup", required = false, defaultValue = "true") boolean rollup) {
+        log.debug("REST: Loading category report, rollup={}", rollup);
+        return ResponseEntity.ok(ApiResponse.success("Báo cáo theo danh mục",
+                categoryBreakdownService.getBreakdown(rollup)));
+    }
+
+    @GetMapping("/top-products")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<List<ProductRankingResponse>>> topProducts(
+            @RequestParam(value = "metric", required = false, defaultValue = "stock_value") String metric,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "days", required = false) Integer days) {
+        log.debug("REST: Ranking top products by {}, limit={}", metric, limit);
+        RankingMetric rankingMetric;
+        try {
+            rankingMetric = RankingMetric.fromParam(metric);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Sản phẩm hàng đầu",
+                productRankingService.getTopProducts(rankingMetric, limit, days)));
+    }
+}
@@ -1,22 +1,34 @@
 package com.warehouse.inventory.controller;
 
+import com.warehouse.inventory.dto.response.CursorPage;
 import com.warehouse.inventory.dto.response.StockSummaryResponse;
+import com.warehouse.inventory.enums.ExportFormat;
+import com.warehouse.inventory.service.CategoryBreakdownService;
+import com.warehouse.inventory.service.ReportExportService;
 import com.warehouse.inventory.service.ReportService;
 import com.warehouse.inventory.service.WarehouseService;
+import com.warehouse.inventory.util.XlsxReportWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 @Slf4j
 @Controller
@@ -25,7 +37,9 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportExportService reportExportService;
     private final WarehouseService warehouseService;
+    private final CategoryBreakdownService categoryBreakdownService;
 
     @GetMapping
     public String reports(
@@ -35,6 +49,9 @@ public class ReportController {
             @RequestParam(value = "endDate", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(value = "reportType", required = false, defaultValue = "stock") String reportType,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "rollup", required = false, defaultValue = "true") boolean rollup,
             Model model) {
 
         log.debug("Loading reports page: type={}, warehouseId={}", reportType, warehouseId);
@@ -47,19 +64,16 @@ public class ReportController {
 
         switch (reportType) {
             case "stock":
-                List<StockSummaryResponse> stockReport = reportService.getStockReport(warehouseId);
-                model.addAttribute("stockReport", stockReport);
+                CursorPage<StockSummaryResponse> stockPage = reportService.getStockReport(warehouseId, cursor, size);
+                model.addAttribute("stockReport", stockPage.getItems());
+                model.addAttribute("page", stockPage);
                 break;
 
             case "movement":
-                LocalDateTime start = startDate != null
-                        ? startDate.atStartOfDay()
-                        : LocalDate.now().minusDays(30).atStartOfDay();
-                LocalDateTime end = endDate != null
-                        ? endDate.atTime(LocalTime.MAX)
-                        : LocalDateTime.now();
-                Map<String, Object> movementReport = reportService.getMovementReport(start, end);
+                Map<String, Object> movementReport = reportService.getMovementReport(
+                        rangeStart(startDate), rangeEnd(endDate), cursor, size);
                 model.addAttribute("movementReport", movementReport);
+                model.addAttribute("page", movementReport.get("page"));
                 break;
 
             case "supplier":
@@ -67,10 +81,93 @@ public class ReportController {
                 model.addAttribute("supplierReport", supplierReport);
                 break;
 
+            case "category":
+                model.addAttribute("categoryReport", categoryBreakdownService.getBreakdown(rollup));
+                model.addAttribute("rollup", rollup);
+                break;
+
             default:
                 break;
         }
 
         return "reports/index";
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam("type") String type,
+            @RequestParam(value = "format", required = false, defaultValue = "csv") String format,
+            @RequestParam(value = "warehouseId", required = false) Long warehouseId,
+            @RequestParam(value = "startDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        log.debug("Exporting report: type={}, format={}", type, format);
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        StreamingResponseBody body;
+        LongSupplier rowCount;
+        switch (type) {
+            case "stock":
+                body = out -> reportExportService.exportStock(warehouseId, exportFormat, out);
+                rowCount = () -> reportExportService.countStock(warehouseId);
+                break;
+
+            case "movement":
+                LocalDateTime start = rangeStart(startDate);
+                LocalDateTime end = rangeEnd(endDate);
+                body = out -> reportExportService.exportMovements(start, end, exportFormat, out);
+                rowCount = () -> reportExportService.countMovements(start, end);
+                break;
+
+            case "supplier":
+                body = out -> reportExportService.exportSuppliers(exportFormat, out);
+                rowCount = reportExportService::countSuppliers;
+                break;
+
+            default:
+                return badRequest("Loại báo cáo không hợp lệ: " + type);
+        }
+
+        // Once streaming has started the limit could only cut the file short, so check it up front
+        if (exportFormat == ExportFormat.XLSX) {
+            long rows = rowCount.getAsLong();
+            if (rows + 1 > XlsxReportWriter.MAX_ROWS) {
+                return badRequest("Báo cáo có " + rows + " dòng, vượt quá số dòng tối đa của tệp XLSX ("
+                        + XlsxReportWriter.MAX_ROWS + "), hãy dùng định dạng CSV");
+            }
+        }
+
+        String filename = "bao-cao-" + type + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
+    // A hand-edited export link gets the reason as plain text instead of a file
+    private static ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static LocalDateTime rangeStart(LocalDate startDate) {
+        return startDate != null
+                ? startDate.atStartOfDay()
+                : LocalDate.now().minusDays(30).atStartOfDay();
+    }
+
+    private static LocalDateTime rangeEnd(LocalDate endDate) {
+        return endDate != null
+                ? endDate.atTime(LocalTime.MAX)
+                : LocalDateTime.now();
+    }
 }
@@ -0,0 +1,51 @@
+package com.warehouse.inventory.controller;
+
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.ApiResponse;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.StockMovementBatchResponse;
+import com.warehouse.inventory.dto.response.StockMovementResponse;
+import com.warehouse.inventory.service.StockMovementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+@Slf4j
+@Controller
+@RequestMapping("/api/stock")
+@RequiredArgsConstructor
+public class StockMovementApiController {
+
+    private final StockMovementService stockMovementService;
+
+    @GetMapping("/movements")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<CursorPage<StockMovementResponse>>> list(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        log.debug("REST: Loading stock movements page, cursor={}", cursor);
+        return ResponseEntity.ok(ApiResponse.success("Danh sách phiếu kho", stockMovementService.findPage(cursor, size)));
+    }
+
+    @PostMapping("/movements:batch")
+    @ResponseBody
+    public ResponseEntity<ApiResponse<StockMovementBatchResponse>> processBatch(
+            @RequestBody List<StockMovementRequest> requests) {
+        log.debug("REST: Processing stock movement batch, size={}", requests.size());
+        try {
+            StockMovementBatchResponse response = stockMovementService.processBatch(requests);
+            return ResponseEntity.ok(ApiResponse.success("Xử lý lô phiếu kho hoàn tất", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
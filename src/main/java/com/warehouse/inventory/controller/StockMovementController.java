@@ -1,7 +1,8 @@
 package com.warehouse.inventory.controller;
 
 import com.warehouse.inventory.dto.request.StockMovementRequest;
-import com.warehouse.inventory.entity.StockMovement;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.StockMovementResponse;
 import com.warehouse.inventory.enums.MovementType;
 import com.warehouse.inventory.service.ProductService;
 import com.warehouse.inventory.service.StockMovementService;
@@ -15,10 +16,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @Slf4j
 @Controller
@@ -31,10 +32,13 @@ public class StockMovementController {
     private final WarehouseService warehouseService;
 
     @GetMapping
-    public String list(Model model) {
-        log.debug("Loading stock movements list page");
-        List<StockMovement> movements = stockMovementService.findRecent();
-        model.addAttribute("movements", movements);
+    public String list(@RequestParam(value = "cursor", required = false) String cursor,
+                       @RequestParam(value = "size", required = false) Integer size,
+                       Model model) {
+        log.debug("Loading stock movements list page, cursor={}", cursor);
+        CursorPage<StockMovementResponse> page = stockMovementService.findPage(cursor, size);
+        model.addAttribute("movements", page.getItems());
+        model.addAttribute("page", page);
         model.addAttribute("activeMenu", "stock");
         return "stock/list";
     }
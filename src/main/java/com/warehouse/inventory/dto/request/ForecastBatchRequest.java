@@ -0,0 +1,67 @@
+package com.warehouse.inventory.dto.request;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.warehouse.inventory.util.DemandSeries;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Body of the AI service's batched forecast endpoint, in its snake_case wire format.
+ * A single {@link Item} is also the body of the single-product forecast endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ForecastBatchRequest {
+
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public static class Item {
+        private Long productId;
+        private String productName;
+        @JsonSerialize(using = DemandSeriesSerializer.class)
+        private DemandSeries historicalData;
+        private Integer forecastDays;
+    }
+
+    /**
+     * Writes the series as the service's list of {date, quantity_in, quantity_out} days,
+     * straight from its arrays.
+     */
+    public static class DemandSeriesSerializer extends StdSerializer<DemandSeries> {
+
+        public DemandSeriesSerializer() {
+            super(DemandSeries.class);
+        }
+
+        @Override
+        public void serialize(DemandSeries series, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartArray();
+            for (int i = 0; i < series.length(); i++) {
+                gen.writeStartObject();
+                gen.writeStringField("date", series.dayAt(i).toString());
+                gen.writeNumberField("quantity_in", series.quantityInAt(i));
+                gen.writeNumberField("quantity_out", series.quantityOutAt(i));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.warehouse.inventory.dto.response;
+
+import com.warehouse.inventory.enums.AlertSeverity;
+import com.warehouse.inventory.enums.AlertType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertResponse {
+
+    private Long id;
+    private Long productId;
+    private String productName;
+    private String warehouseName;
+    private AlertType type;
+    private AlertSeverity severity;
+    private String message;
+    private LocalDateTime createdAt;
+    private int occurrenceCount;
+    private LocalDateTime lastSeenAt;
+}
@@ -0,0 +1,55 @@
+package com.warehouse.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    private List<T> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static int sizeOf(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(requested, MAX_SIZE);
+    }
+
+    /**
+     * Builds a page from a query that fetched {@code size + 1} rows; the extra row only
+     * signals that another page exists.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                          Function<E, String> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<T>builder()
+                .items(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(size - 1)) : null)
+                .build();
+    }
+
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        return of(rows, size, cursorOf, Function.identity());
+    }
+}
@@ -1,11 +1,15 @@
 package com.warehouse.inventory.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.warehouse.inventory.entity.DashboardStat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -26,4 +30,15 @@ public class DashboardResponse {
     private List<Object> recentMovements;
     private Map<String, Long> categoryBreakdown;
     private List<Object> topProducts;
+    private List<DashboardStat> trend;
+    private LocalDateTime generatedAt;
+
+    /** Widgets shown with fallback values because their query failed or timed out. */
+    @Builder.Default
+    private List<String> degradedWidgets = new ArrayList<>();
+
+    @JsonIgnore
+    public boolean isDegraded() {
+        return degradedWidgets != null && !degradedWidgets.isEmpty();
+    }
 }
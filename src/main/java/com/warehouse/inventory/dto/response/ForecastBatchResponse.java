@@ -0,0 +1,20 @@
+package com.warehouse.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ForecastBatchResponse {
+
+    private List<ForecastResponse> results;
+
+    // Products the AI service could not forecast
+    private List<Long> failed;
+}
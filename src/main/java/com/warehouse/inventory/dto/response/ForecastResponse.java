@@ -1,5 +1,6 @@
 package com.warehouse.inventory.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,12 +14,18 @@ import java.util.List;
 @Builder
 public class ForecastResponse {
 
+    // Aliases accept the AI service's snake_case fields
+    @JsonAlias("product_id")
     private Long productId;
+    @JsonAlias("product_name")
     private String productName;
+    @JsonAlias("current_stock")
     private Integer currentStock;
     private List<DayPrediction> predictions;
     private Double confidence;
     private String recommendation;
+    // AI for the AI service, LOCAL for the in-process fallback
+    private String source;
 
     @Data
     @NoArgsConstructor
@@ -26,6 +33,7 @@ public class ForecastResponse {
     @Builder
     public static class DayPrediction {
         private String date;
+        @JsonAlias("predicted_demand")
         private Double predictedDemand;
     }
 }
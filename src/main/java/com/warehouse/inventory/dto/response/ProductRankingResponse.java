@@ -0,0 +1,24 @@
+package com.warehouse.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductRankingResponse {
+
+    private Long productId;
+    private String sku;
+    private String name;
+    private String categoryName;
+    private Long totalQuantity;
+    private BigDecimal unitPrice;
+    private BigDecimal costPrice;
+    private BigDecimal score;
+}
@@ -0,0 +1,27 @@
+package com.warehouse.inventory.dto.response;
+
+import com.warehouse.inventory.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurchaseOrderResponse {
+
+    private Long id;
+    private String orderNumber;
+    private Long supplierId;
+    private String supplierName;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDate expectedDeliveryDate;
+    private LocalDateTime orderDate;
+}
@@ -0,0 +1,33 @@
+package com.warehouse.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementBatchResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+
+        /** Position of the movement in the submitted batch. */
+        private int index;
+        private boolean success;
+        private Long movementId;
+        private String message;
+    }
+}
@@ -0,0 +1,28 @@
+package com.warehouse.inventory.dto.response;
+
+import com.warehouse.inventory.enums.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementResponse {
+
+    private Long id;
+    private Long productId;
+    private String productName;
+    private String fromWarehouseName;
+    private String toWarehouseName;
+    private Integer quantity;
+    private MovementType type;
+    private String reason;
+    private String reference;
+    private String createdBy;
+    private LocalDateTime createdAt;
+}
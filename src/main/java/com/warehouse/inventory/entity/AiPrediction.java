@@ -14,6 +14,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -24,7 +25,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "ai_predictions")
+@Table(name = "ai_predictions", indexes = {
+        @Index(name = "idx_ai_predictions_product_type", columnList = "product_id, prediction_type, valid_until"),
+        @Index(name = "idx_ai_predictions_type_valid_until", columnList = "prediction_type, valid_until")
+})
 public class AiPrediction {
 
     @Id
@@ -47,6 +51,12 @@ public class AiPrediction {
     @Column(name = "valid_until")
     private LocalDateTime validUntil;
 
+    /**
+     * Product movement version the prediction was computed from, for forecasts only.
+     */
+    @Column(name = "movement_version")
+    private Long movementVersion;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
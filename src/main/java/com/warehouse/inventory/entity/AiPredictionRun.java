@@ -0,0 +1,61 @@
+package com.warehouse.inventory.entity;
+
+import com.warehouse.inventory.enums.PredictionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * One run of a catalog-wide prediction. Its {@link AiPrediction} rows share its valid_until;
+ * a run that found nothing has no rows but is still served until it expires.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "ai_prediction_runs", indexes = {
+        @Index(name = "idx_ai_prediction_runs_type_valid_until", columnList = "prediction_type, valid_until")
+})
+public class AiPredictionRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "prediction_type", nullable = false)
+    private PredictionType predictionType;
+
+    /**
+     * JSON array of the products the run was asked about, or null when it covered the whole catalog.
+     */
+    @Column(name = "product_ids", columnDefinition = "TEXT")
+    private String productIds;
+
+    @Column(name = "result_count", nullable = false)
+    private int resultCount;
+
+    @Column(name = "valid_until", nullable = false)
+    private LocalDateTime validUntil;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @javax.persistence.PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -20,6 +20,11 @@ import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
+/**
+ * At most one alert per product, warehouse and type is open at a time: repeats of an open
+ * alert raise its occurrence count and last-seen time instead of adding rows
+ * (see {@link com.warehouse.inventory.repository.AlertRepositoryCustom#openOrCoalesce}).
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -65,8 +70,16 @@ public class Alert {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "last_seen_at")
+    private LocalDateTime lastSeenAt;
+
+    @Column(name = "occurrence_count", nullable = false, columnDefinition = "integer not null default 1")
+    @Builder.Default
+    private int occurrenceCount = 1;
+
     @javax.persistence.PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.lastSeenAt = this.createdAt;
     }
 }
@@ -38,6 +38,12 @@ public class DashboardStat {
     @Column(name = "total_movements")
     private Long totalMovements;
 
+    @Column(name = "inbound_quantity")
+    private Long inboundQuantity;
+
+    @Column(name = "outbound_quantity")
+    private Long outboundQuantity;
+
     @Column(name = "low_stock_count")
     private Long lowStockCount;
 
@@ -0,0 +1,53 @@
+package com.warehouse.inventory.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Per-product stock summed over all warehouses. Maintained by the stock write path in the
+ * same transaction as the warehouse_stock rows, so readers never need to aggregate.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "product_stock_totals")
+public class ProductStockTotal {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "total_quantity", nullable = false)
+    @Builder.Default
+    private Integer totalQuantity = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Bumped by every stock movement that is not a transfer, so values derived from the
+     * product's movement history (forecasts) can be keyed on it instead of expiring by time.
+     * Starts at 1 on the first movement; 0 means no movement since the row was seeded.
+     */
+    @Column(name = "movement_version", nullable = false, columnDefinition = "bigint not null default 0")
+    @Builder.Default
+    private Long movementVersion = 0L;
+
+    /**
+     * Whether the product is active and its total is at or below its minimum stock level.
+     * Written by the same statements that move the total, and by product updates.
+     */
+    @Column(name = "low_stock", nullable = false, columnDefinition = "boolean not null default false")
+    @Builder.Default
+    private Boolean lowStock = false;
+}
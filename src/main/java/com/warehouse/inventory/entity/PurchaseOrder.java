@@ -15,6 +15,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -30,7 +31,9 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "purchase_orders")
+@Table(name = "purchase_orders", indexes = {
+        @Index(name = "idx_purchase_orders_created_at_id", columnList = "created_at, id")
+})
 public class PurchaseOrder {
 
     @Id
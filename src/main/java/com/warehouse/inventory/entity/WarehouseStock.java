@@ -15,6 +15,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Data
@@ -46,6 +47,10 @@ public class WarehouseStock {
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private long version;
+
     @javax.persistence.PrePersist
     @javax.persistence.PreUpdate
     protected void onUpdate() {
@@ -0,0 +1,31 @@
+package com.warehouse.inventory.enums;
+
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParam(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Định dạng xuất không hợp lệ: " + value);
+    }
+}
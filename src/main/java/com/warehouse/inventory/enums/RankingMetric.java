@@ -0,0 +1,21 @@
+package com.warehouse.inventory.enums;
+
+public enum RankingMetric {
+    /** On-hand quantity across all warehouses times unit price. */
+    STOCK_VALUE,
+    /** On-hand quantity across all warehouses times cost price. */
+    COST_VALUE,
+    /** On-hand quantity times (unit price - cost price): margin locked up in stock. */
+    MARGIN,
+    /** Quantity shipped out (OUT movements) over a recent window. */
+    VELOCITY;
+
+    public static RankingMetric fromParam(String value) {
+        for (RankingMetric metric : values()) {
+            if (metric.name().equalsIgnoreCase(value) || metric.name().replace('_', '-').equalsIgnoreCase(value)) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("Tiêu chí xếp hạng không hợp lệ: " + value);
+    }
+}
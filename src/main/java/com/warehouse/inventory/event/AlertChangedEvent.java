@@ -0,0 +1,13 @@
+package com.warehouse.inventory.event;
+
+import lombok.Value;
+
+/**
+ * Published when an alert is raised or resolved.
+ */
+@Value
+public class AlertChangedEvent {
+
+    Long alertId;
+    boolean resolved;
+}
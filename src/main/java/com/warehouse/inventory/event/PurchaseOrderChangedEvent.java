@@ -0,0 +1,14 @@
+package com.warehouse.inventory.event;
+
+import com.warehouse.inventory.enums.OrderStatus;
+import lombok.Value;
+
+/**
+ * Published when a purchase order is created or changes status.
+ */
+@Value
+public class PurchaseOrderChangedEvent {
+
+    Long orderId;
+    OrderStatus status;
+}
@@ -0,0 +1,15 @@
+package com.warehouse.inventory.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published by the stock write path for every committed movement or batch. Listeners that
+ * derive state from stock levels use it to refresh or invalidate that state.
+ */
+@Value
+public class StockChangedEvent {
+
+    Set<Long> productIds;
+}
@@ -0,0 +1,30 @@
+package com.warehouse.inventory.event;
+
+import com.warehouse.inventory.enums.MovementType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published by the stock write path with the movements it recorded, for work that follows a
+ * committed movement without holding up its transaction (see
+ * {@link com.warehouse.inventory.service.AlertPipeline}). Carries plain values, since the
+ * entities are detached by the time listeners run.
+ */
+@Value
+public class StockMovementsEvent {
+
+    List<Movement> movements;
+
+    @Value
+    public static class Movement {
+
+        Long productId;
+        String productName;
+        Integer minStockLevel;
+        /** Destination warehouse, or the source for outgoing movements. */
+        Long warehouseId;
+        MovementType type;
+        int quantity;
+    }
+}
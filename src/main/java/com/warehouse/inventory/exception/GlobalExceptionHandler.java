@@ -61,6 +61,19 @@ public class GlobalExceptionHandler {
         return mav;
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public Object handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        if (isApiRequest(request)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(ex.getMessage()));
+        }
+        ModelAndView mav = new ModelAndView("error/400");
+        mav.addObject("message", ex.getMessage());
+        mav.setStatus(HttpStatus.BAD_REQUEST);
+        return mav;
+    }
+
     @ExceptionHandler(AiServiceException.class)
     public Object handleAiServiceException(AiServiceException ex, HttpServletRequest request) {
         log.error("AI service error: {}", ex.getMessage(), ex);
@@ -0,0 +1,8 @@
+package com.warehouse.inventory.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Con trỏ phân trang không hợp lệ: " + cursor);
+    }
+}
@@ -3,10 +3,16 @@ package com.warehouse.inventory.repository;
 import com.warehouse.inventory.entity.AiPrediction;
 import com.warehouse.inventory.enums.PredictionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AiPredictionRepository extends JpaRepository<AiPrediction, Long> {
@@ -15,4 +21,25 @@ public interface AiPredictionRepository extends JpaRepository<AiPrediction, Long
                                                                             PredictionType predictionType);
 
     List<AiPrediction> findByValidUntilAfter(LocalDateTime dateTime);
+
+    Optional<AiPrediction> findFirstByProductIdAndPredictionTypeAndMovementVersionAndValidUntilAfterOrderByCreatedAtDesc(
+            Long productId, PredictionType predictionType, Long movementVersion, LocalDateTime now);
+
+    @Query("SELECT p FROM AiPrediction p WHERE p.product.id IN :productIds AND p.predictionType = :type " +
+            "AND p.validUntil > :now ORDER BY p.createdAt DESC")
+    List<AiPrediction> findValidByProductIds(@Param("productIds") Collection<Long> productIds,
+                                             @Param("type") PredictionType type,
+                                             @Param("now") LocalDateTime now);
+
+    /**
+     * Rows of one run of a catalog-wide prediction. All rows of a run share the run's
+     * valid_until, which identifies it.
+     */
+    List<AiPrediction> findByPredictionTypeAndValidUntilOrderByIdAsc(PredictionType predictionType,
+                                                                    LocalDateTime validUntil);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiPrediction p WHERE p.validUntil < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
 }
@@ -0,0 +1,25 @@
+package com.warehouse.inventory.repository;
+
+import com.warehouse.inventory.entity.AiPredictionRun;
+import com.warehouse.inventory.enums.PredictionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AiPredictionRunRepository extends JpaRepository<AiPredictionRun, Long> {
+
+    Optional<AiPredictionRun> findFirstByPredictionTypeAndValidUntilAfterOrderByValidUntilDesc(
+            PredictionType predictionType, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiPredictionRun r WHERE r.validUntil < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,33 @@
+package com.warehouse.inventory.repository;
+
+import com.warehouse.inventory.enums.AlertSeverity;
+import com.warehouse.inventory.enums.AlertType;
+import lombok.Value;
+
+import java.util.Comparator;
+
+/**
+ * An alert to raise: opened as a new alert, or folded into the open alert of the same
+ * product, warehouse and type. Drafts sort by that key, the order their rows are locked in.
+ */
+@Value
+public class AlertDraft implements Comparable<AlertDraft> {
+
+    private static final Comparator<AlertDraft> ORDER = Comparator
+            .comparing((AlertDraft d) -> d.getProductId() != null ? d.getProductId() : 0L)
+            .thenComparing(d -> d.getWarehouseId() != null ? d.getWarehouseId() : 0L)
+            .thenComparing(AlertDraft::getType);
+
+    Long productId;
+    Long warehouseId;
+    AlertType type;
+    String message;
+    AlertSeverity severity;
+    /** Occurrences this draft stands for, added to the open alert's count. */
+    int occurrences;
+
+    @Override
+    public int compareTo(AlertDraft other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,5 +1,6 @@
 package com.warehouse.inventory.repository;
 
+import com.warehouse.inventory.dto.response.AlertResponse;
 import com.warehouse.inventory.entity.Alert;
 import com.warehouse.inventory.enums.AlertType;
 import org.springframework.data.domain.Pageable;
@@ -10,7 +11,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface AlertRepository extends JpaRepository<Alert, Long> {
+public interface AlertRepository extends JpaRepository<Alert, Long>, AlertRepositoryCustom {
 
     List<Alert> findByResolvedFalseOrderByCreatedAtDesc();
 
@@ -18,6 +19,12 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
 
     long countByResolvedFalse();
 
-    @Query("SELECT a FROM Alert a ORDER BY a.createdAt DESC")
+    // Recent means last seen: a coalesced alert that keeps recurring stays near the top
+    @Query("SELECT a FROM Alert a ORDER BY a.lastSeenAt DESC")
     List<Alert> findRecent(Pageable pageable);
+
+    @Query("SELECT new com.warehouse.inventory.dto.response.AlertResponse(" +
+            "a.id, p.id, p.name, w.name, a.type, a.severity, a.message, a.createdAt, a.occurrenceCount, a.lastSeenAt) " +
+            "FROM Alert a LEFT JOIN a.product p LEFT JOIN a.warehouse w ORDER BY a.lastSeenAt DESC")
+    List<AlertResponse> findRecentResponses(Pageable pageable);
 }
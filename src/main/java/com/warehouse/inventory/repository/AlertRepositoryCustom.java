@@ -0,0 +1,18 @@
+package com.warehouse.inventory.repository;
+
+import java.util.List;
+
+/**
+ * Alert writes executed with plain JDBC.
+ */
+public interface AlertRepositoryCustom {
+
+    /**
+     * Opens each alert, or folds it into the open alert of the same product, warehouse and
+     * type: that alert takes the new message and severity, its occurrence count goes up by
+     * the draft's occurrences and its last-seen time moves to now. Drafts sharing a key are
+     * merged first, the last one's message and severity winning. Returns the ids of newly
+     * opened alerts.
+     */
+    List<Long> openOrCoalesce(List<AlertDraft> drafts);
+}
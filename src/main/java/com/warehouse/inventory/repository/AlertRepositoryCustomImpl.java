@@ -0,0 +1,62 @@
+package com.warehouse.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class AlertRepositoryCustomImpl implements AlertRepositoryCustom {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> openOrCoalesce(List<AlertDraft> drafts) {
+        // One row per key: a statement may not update the same alert twice. Sorted, so
+        // concurrent writers lock open alerts in the same order.
+        Map<AlertDraft, AlertDraft> merged = new TreeMap<>();
+        for (AlertDraft draft : drafts) {
+            merged.merge(draft, draft, (earlier, later) -> new AlertDraft(later.getProductId(),
+                    later.getWarehouseId(), later.getType(), later.getMessage(), later.getSeverity(),
+                    earlier.getOccurrences() + later.getOccurrences()));
+        }
+        List<AlertDraft> rows = new ArrayList<>(merged.values());
+
+        List<Long> opened = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            List<AlertDraft> chunk = rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size()));
+            String values = String.join(",", Collections.nCopies(chunk.size(),
+                    "(?, ?, ?, ?, ?, false, now(), now(), ?)"));
+            List<Object> params = new ArrayList<>(chunk.size() * 6);
+            for (AlertDraft draft : chunk) {
+                params.add(draft.getProductId());
+                params.add(draft.getWarehouseId());
+                params.add(draft.getType().name());
+                params.add(draft.getMessage());
+                params.add(draft.getSeverity().name());
+                params.add(draft.getOccurrences());
+            }
+
+            // The conflict target is the partial unique index on open alerts (post-schema);
+            // xmax is 0 only on a row this statement inserted
+            opened.addAll(jdbcTemplate.query("INSERT INTO alerts (product_id, warehouse_id, type, message, " +
+                            "severity, resolved, created_at, last_seen_at, occurrence_count) VALUES " + values + " " +
+                            "ON CONFLICT (COALESCE(product_id, 0), COALESCE(warehouse_id, 0), type) WHERE NOT resolved " +
+                            "DO UPDATE SET message = EXCLUDED.message, severity = EXCLUDED.severity, " +
+                            "last_seen_at = EXCLUDED.last_seen_at, " +
+                            "occurrence_count = alerts.occurrence_count + EXCLUDED.occurrence_count " +
+                            "RETURNING id, xmax = 0 AS inserted",
+                    (rs, rowNum) -> rs.getBoolean("inserted") ? rs.getLong("id") : null,
+                    params.toArray()));
+        }
+        opened.removeIf(Objects::isNull);
+        return opened;
+    }
+}
@@ -1,6 +1,7 @@
 package com.warehouse.inventory.repository;
 
 import com.warehouse.inventory.entity.Category;
+import com.warehouse.inventory.repository.projection.CategoryTotal;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -14,4 +15,36 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findRootCategories();
 
     List<Category> findByNameContainingIgnoreCase(String name);
+
+    @Query(value = "SELECT c.id AS categoryId, c.name AS categoryName, COUNT(*) AS productCount, " +
+            "COALESCE(SUM(t.total_quantity), 0) AS totalQuantity " +
+            "FROM products p " +
+            "JOIN categories c ON c.id = p.category_id " +
+            "LEFT JOIN product_stock_totals t ON t.product_id = p.id " +
+            "WHERE p.active = true " +
+            "GROUP BY c.id, c.name " +
+            "ORDER BY productCount DESC, c.name", nativeQuery = true)
+    List<CategoryTotal> sumActiveProductsByCategory();
+
+    // Maps every category to its root by walking parent_category_id down from the roots,
+    // then groups the per-category aggregate by root
+    @Query(value = "WITH RECURSIVE tree (id, root_id) AS (" +
+            "  SELECT id, id FROM categories WHERE parent_category_id IS NULL " +
+            "  UNION ALL " +
+            "  SELECT c.id, tree.root_id FROM categories c JOIN tree ON c.parent_category_id = tree.id" +
+            "), per_category AS (" +
+            "  SELECT p.category_id, COUNT(*) AS product_count, " +
+            "  COALESCE(SUM(t.total_quantity), 0) AS total_quantity " +
+            "  FROM products p LEFT JOIN product_stock_totals t ON t.product_id = p.id " +
+            "  WHERE p.active = true AND p.category_id IS NOT NULL " +
+            "  GROUP BY p.category_id" +
+            ") " +
+            "SELECT r.id AS categoryId, r.name AS categoryName, SUM(pc.product_count) AS productCount, " +
+            "SUM(pc.total_quantity) AS totalQuantity " +
+            "FROM per_category pc " +
+            "JOIN tree ON tree.id = pc.category_id " +
+            "JOIN categories r ON r.id = tree.root_id " +
+            "GROUP BY r.id, r.name " +
+            "ORDER BY productCount DESC, r.name", nativeQuery = true)
+    List<CategoryTotal> sumActiveProductsByRootCategory();
 }
@@ -0,0 +1,37 @@
+package com.warehouse.inventory.repository;
+
+import com.warehouse.inventory.entity.DashboardStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DashboardStatRepository extends JpaRepository<DashboardStat, Long> {
+
+    List<DashboardStat> findByStatDateGreaterThanEqualOrderByStatDateAsc(LocalDate from);
+
+    // Insert-or-replace keyed on stat_date, so concurrent or repeated snapshot runs keep one row per day
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_stats (stat_date, total_products, total_stock_value, total_movements, " +
+            "inbound_quantity, outbound_quantity, low_stock_count, alert_count) " +
+            "VALUES (:statDate, :totalProducts, :totalStockValue, :totalMovements, :inboundQuantity, " +
+            ":outboundQuantity, :lowStockCount, :alertCount) " +
+            "ON CONFLICT (stat_date) DO UPDATE SET total_products = EXCLUDED.total_products, " +
+            "total_stock_value = EXCLUDED.total_stock_value, total_movements = EXCLUDED.total_movements, " +
+            "inbound_quantity = EXCLUDED.inbound_quantity, outbound_quantity = EXCLUDED.outbound_quantity, " +
+            "low_stock_count = EXCLUDED.low_stock_count, alert_count = EXCLUDED.alert_count", nativeQuery = true)
+    int upsert(@Param("statDate") LocalDate statDate,
+               @Param("totalProducts") long totalProducts,
+               @Param("totalStockValue") BigDecimal totalStockValue,
+               @Param("totalMovements") long totalMovements,
+               @Param("inboundQuantity") long inboundQuantity,
+               @Param("outboundQuantity") long outboundQuantity,
+               @Param("lowStockCount") long lowStockCount,
+               @Param("alertCount") long alertCount);
+}
@@ -0,0 +1,17 @@
+package com.warehouse.inventory.repository;
+
+import lombok.Value;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stock rows locked by {@link WarehouseStockRepositoryCustom#lockStock}: their quantities at
+ * lock time, and the keys of the rows the lock had to create with quantity 0.
+ */
+@Value
+public class LockedStock {
+
+    Map<StockKey, Integer> quantities;
+    Set<StockKey> created;
+}
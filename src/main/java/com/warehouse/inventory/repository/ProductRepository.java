@@ -1,11 +1,15 @@
 package com.warehouse.inventory.repository;
 
+import com.warehouse.inventory.dto.response.ProductResponse;
 import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.repository.projection.ProductRanking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,19 +26,78 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             "OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Product> search(@Param("keyword") String keyword);
 
-    @Query(value = "SELECT p.* FROM products p " +
-            "INNER JOIN warehouse_stock ws ON ws.product_id = p.id " +
-            "WHERE p.active = true AND p.min_stock_level IS NOT NULL " +
-            "GROUP BY p.id " +
-            "HAVING SUM(ws.quantity) <= p.min_stock_level", nativeQuery = true)
+    /**
+     * Reads only the totals flagged low_stock through their partial index, so the cost
+     * follows the number of low products rather than the catalog size.
+     */
+    @Query(value = "SELECT p.* FROM product_stock_totals t " +
+            "INNER JOIN products p ON p.id = t.product_id " +
+            "WHERE t.low_stock ORDER BY t.product_id", nativeQuery = true)
     List<Product> findLowStockProducts();
 
     @Query(value = "SELECT p.* FROM products p " +
-            "INNER JOIN warehouse_stock ws ON ws.product_id = p.id " +
+            "INNER JOIN product_stock_totals t ON t.product_id = p.id " +
             "WHERE p.active = true AND p.max_stock_level IS NOT NULL " +
-            "GROUP BY p.id " +
-            "HAVING SUM(ws.quantity) >= p.max_stock_level", nativeQuery = true)
+            "AND t.total_quantity >= p.max_stock_level", nativeQuery = true)
     List<Product> findOverStockProducts();
 
     long countByActiveTrue();
+
+    /*
+     * List-page read model: product, category, supplier and stock total in a single
+     * statement, so rendering a list never touches the lazy associations.
+     */
+    String RESPONSE_SELECT = "SELECT new com.warehouse.inventory.dto.response.ProductResponse(" +
+            "p.id, p.sku, p.name, p.description, c.id, c.name, s.id, s.name, p.unit, p.unitPrice, " +
+            "p.costPrice, p.minStockLevel, p.maxStockLevel, p.reorderPoint, p.active, p.imageUrl, " +
+            "COALESCE(t.totalQuantity, 0), p.createdAt, p.updatedAt) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.supplier s " +
+            "LEFT JOIN ProductStockTotal t ON t.productId = p.id ";
+
+    @Query(RESPONSE_SELECT + "WHERE p.active = true")
+    List<ProductResponse> findActiveResponses();
+
+    @Query(RESPONSE_SELECT + "WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductResponse> findActiveResponsesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+            "OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    List<ProductResponse> searchResponses(@Param("keyword") String keyword);
+
+    /*
+     * Top-K rankings. ORDER BY score LIMIT k lets PostgreSQL keep a bounded top-N heap
+     * while scanning the stock totals instead of sorting every product.
+     */
+    String RANKING_SELECT = "SELECT p.id AS productId, p.sku AS sku, p.name AS name, c.name AS categoryName, " +
+            "t.total_quantity AS totalQuantity, p.unit_price AS unitPrice, p.cost_price AS costPrice, ";
+
+    String RANKING_FROM = "FROM products p " +
+            "JOIN product_stock_totals t ON t.product_id = p.id " +
+            "LEFT JOIN categories c ON c.id = p.category_id " +
+            "WHERE p.active = true AND t.total_quantity > 0 ";
+
+    @Query(value = RANKING_SELECT + "t.total_quantity * p.unit_price AS score " + RANKING_FROM +
+            "AND p.unit_price IS NOT NULL ORDER BY score DESC, p.id LIMIT :limit", nativeQuery = true)
+    List<ProductRanking> findTopByStockValue(@Param("limit") int limit);
+
+    @Query(value = RANKING_SELECT + "t.total_quantity * p.cost_price AS score " + RANKING_FROM +
+            "AND p.cost_price IS NOT NULL ORDER BY score DESC, p.id LIMIT :limit", nativeQuery = true)
+    List<ProductRanking> findTopByCostValue(@Param("limit") int limit);
+
+    @Query(value = RANKING_SELECT + "t.total_quantity * (p.unit_price - p.cost_price) AS score " + RANKING_FROM +
+            "AND p.unit_price IS NOT NULL AND p.cost_price IS NOT NULL " +
+            "ORDER BY score DESC, p.id LIMIT :limit", nativeQuery = true)
+    List<ProductRanking> findTopByMargin(@Param("limit") int limit);
+
+    @Query(value = "SELECT p.id AS productId, p.sku AS sku, p.name AS name, c.name AS categoryName, " +
+            "COALESCE(t.total_quantity, 0) AS totalQuantity, p.unit_price AS unitPrice, " +
+            "p.cost_price AS costPrice, CAST(o.shipped AS NUMERIC) AS score " +
+            "FROM (SELECT m.product_id, SUM(m.quantity) AS shipped FROM stock_movements m " +
+            "      WHERE m.type = 'OUT' AND m.created_at >= :since GROUP BY m.product_id) o " +
+            "JOIN products p ON p.id = o.product_id " +
+            "LEFT JOIN product_stock_totals t ON t.product_id = p.id " +
+            "LEFT JOIN categories c ON c.id = p.category_id " +
+            "WHERE p.active = true " +
+            "ORDER BY score DESC, p.id LIMIT :limit", nativeQuery = true)
+    List<ProductRanking> findTopByVelocity(@Param("since") LocalDateTime since, @Param("limit") int limit);
 }
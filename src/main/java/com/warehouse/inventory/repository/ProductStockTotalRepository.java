@@ -0,0 +1,65 @@
+package com.warehouse.inventory.repository;
+
+import com.warehouse.inventory.entity.ProductStockTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductStockTotalRepository extends JpaRepository<ProductStockTotal, Long> {
+
+    /*
+     * SQL pieces for the low_stock flag of a total, for statements that write totals:
+     * LOW_STOCK_IF + total + LOW_STOCK_AT + product id + LOW_STOCK_END. Products without a
+     * minimum, inactive products and unknown ids are never low.
+     */
+    String LOW_STOCK_IF = "COALESCE((SELECT p.active AND p.min_stock_level IS NOT NULL AND ";
+    String LOW_STOCK_AT = " <= p.min_stock_level FROM products p WHERE p.id = ";
+    String LOW_STOCK_END = "), false)";
+
+    @Query("SELECT t.totalQuantity FROM ProductStockTotal t WHERE t.productId = :productId")
+    Optional<Integer> findTotalQuantity(@Param("productId") Long productId);
+
+    /**
+     * Current movement version of the product, empty if it has never had stock.
+     */
+    @Query("SELECT t.movementVersion FROM ProductStockTotal t WHERE t.productId = :productId")
+    Optional<Long> findMovementVersion(@Param("productId") Long productId);
+
+    List<ProductStockTotal> findByProductIdIn(Collection<Long> productIds);
+
+    /**
+     * Recomputes every total from warehouse_stock. Only for bulk loads that bypass
+     * the stock write path, such as seeding.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO product_stock_totals (product_id, total_quantity, updated_at, low_stock) " +
+            "SELECT ws.product_id, SUM(ws.quantity), now(), " +
+            LOW_STOCK_IF + "SUM(ws.quantity)" + LOW_STOCK_AT + "ws.product_id" + LOW_STOCK_END + " " +
+            "FROM warehouse_stock ws GROUP BY ws.product_id " +
+            "ON CONFLICT (product_id) DO UPDATE " +
+            "SET total_quantity = EXCLUDED.total_quantity, updated_at = EXCLUDED.updated_at, " +
+            "low_stock = EXCLUDED.low_stock", nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * Re-derives the product's low_stock flag after its minimum or active state changed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE product_stock_totals SET low_stock = " +
+            LOW_STOCK_IF + "total_quantity" + LOW_STOCK_AT + ":productId" + LOW_STOCK_END + " " +
+            "WHERE product_id = :productId", nativeQuery = true)
+    int refreshLowStock(@Param("productId") Long productId);
+
+    @Query(value = "SELECT count(*) FROM product_stock_totals WHERE low_stock", nativeQuery = true)
+    long countLowStock();
+}
@@ -1,10 +1,15 @@
 package com.warehouse.inventory.repository;
 
+import com.warehouse.inventory.dto.response.PurchaseOrderResponse;
 import com.warehouse.inventory.entity.PurchaseOrder;
 import com.warehouse.inventory.enums.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,11 +18,25 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
 
     List<PurchaseOrder> findByStatus(OrderStatus status);
 
-    List<PurchaseOrder> findBySupplierIdOrderByOrderedAtDesc(Long supplierId);
+    List<PurchaseOrder> findBySupplierIdOrderByCreatedAtDesc(Long supplierId);
 
     Optional<PurchaseOrder> findByOrderNumber(String orderNumber);
 
-    List<PurchaseOrder> findAllByOrderByCreatedAtDesc();
+    /*
+     * Keyset pages, newest first. "createdAt <= :createdAt" keeps the predicate usable by the
+     * (created_at, id) index; the OR only breaks ties on the boundary timestamp.
+     */
+    String RESPONSE_SELECT = "SELECT new com.warehouse.inventory.dto.response.PurchaseOrderResponse(" +
+            "o.id, o.orderNumber, s.id, s.name, o.status, o.totalAmount, o.expectedDelivery, o.createdAt) " +
+            "FROM PurchaseOrder o JOIN o.supplier s ";
+
+    @Query(RESPONSE_SELECT + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<PurchaseOrderResponse> findFirstPage(Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.id < :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<PurchaseOrderResponse> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") long id, Pageable pageable);
 
     long countByStatus(OrderStatus status);
 
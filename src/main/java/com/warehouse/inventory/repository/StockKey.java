@@ -0,0 +1,25 @@
+package com.warehouse.inventory.repository;
+
+import lombok.Value;
+
+import java.util.Comparator;
+
+/**
+ * Identifies one warehouse_stock row. Keys sort by (warehouse_id, product_id),
+ * which is the order stock rows are always locked in.
+ */
+@Value
+public class StockKey implements Comparable<StockKey> {
+
+    private static final Comparator<StockKey> ORDER = Comparator
+            .comparing(StockKey::getWarehouseId)
+            .thenComparing(StockKey::getProductId);
+
+    Long warehouseId;
+    Long productId;
+
+    @Override
+    public int compareTo(StockKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,7 +1,11 @@
 package com.warehouse.inventory.repository;
 
+import com.warehouse.inventory.dto.response.StockMovementResponse;
 import com.warehouse.inventory.entity.StockMovement;
 import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.repository.projection.DailyMovementTotal;
+import com.warehouse.inventory.repository.projection.MovementTypeTotal;
+import com.warehouse.inventory.repository.projection.ProductDailyMovementTotal;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -27,4 +31,59 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
 
     @Query("SELECT COUNT(sm) FROM StockMovement sm WHERE sm.createdAt BETWEEN :start AND :end")
     long countByDateRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Keyset pages, newest first; same boundary handling as PurchaseOrderRepository
+    String RESPONSE_SELECT = "SELECT new com.warehouse.inventory.dto.response.StockMovementResponse(" +
+            "sm.id, p.id, p.name, fw.name, tw.name, sm.quantity, sm.type, sm.reason, sm.reference, " +
+            "sm.performedBy, sm.createdAt) " +
+            "FROM StockMovement sm JOIN sm.product p LEFT JOIN sm.fromWarehouse fw LEFT JOIN sm.toWarehouse tw ";
+
+    @Query(RESPONSE_SELECT + "ORDER BY sm.createdAt DESC, sm.id DESC")
+    List<StockMovementResponse> findFirstPage(Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE sm.createdAt <= :createdAt AND (sm.createdAt < :createdAt OR sm.id < :id) " +
+            "ORDER BY sm.createdAt DESC, sm.id DESC")
+    List<StockMovementResponse> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") long id, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE sm.createdAt BETWEEN :start AND :end ORDER BY sm.createdAt DESC, sm.id DESC")
+    List<StockMovementResponse> findRangeFirstPage(@Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end, Pageable pageable);
+
+    // The cursor already lies inside the range, so only the lower bound is still needed
+    @Query(RESPONSE_SELECT + "WHERE sm.createdAt >= :start " +
+            "AND sm.createdAt <= :createdAt AND (sm.createdAt < :createdAt OR sm.id < :id) " +
+            "ORDER BY sm.createdAt DESC, sm.id DESC")
+    List<StockMovementResponse> findRangePageBefore(@Param("start") LocalDateTime start,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") long id, Pageable pageable);
+
+    @Query("SELECT sm.type AS type, COUNT(sm) AS movementCount, COALESCE(SUM(sm.quantity), 0) AS totalQuantity " +
+            "FROM StockMovement sm WHERE sm.createdAt BETWEEN :start AND :end GROUP BY sm.type")
+    List<MovementTypeTotal> sumByTypeBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Daily IN/OUT totals of a product since {@code since}, oldest first; days without
+     * movements are absent. Transfers and adjustments are not demand and are left out.
+     */
+    @Query(value = "SELECT CAST(date_trunc('day', sm.created_at) AS date) AS day, " +
+            "SUM(CASE WHEN sm.type = 'IN' THEN sm.quantity ELSE 0 END) AS quantityIn, " +
+            "SUM(CASE WHEN sm.type = 'OUT' THEN sm.quantity ELSE 0 END) AS quantityOut " +
+            "FROM stock_movements sm " +
+            "WHERE sm.product_id = :productId AND sm.created_at >= :since AND sm.type IN ('IN', 'OUT') " +
+            "GROUP BY date_trunc('day', sm.created_at) ORDER BY 1", nativeQuery = true)
+    List<DailyMovementTotal> sumDailyByProduct(@Param("productId") Long productId,
+                                               @Param("since") LocalDateTime since);
+
+    /**
+     * Like {@link #sumDailyByProduct} for every product, ordered by product then day.
+     */
+    @Query(value = "SELECT sm.product_id AS productId, p.name AS productName, " +
+            "CAST(date_trunc('day', sm.created_at) AS date) AS day, " +
+            "SUM(CASE WHEN sm.type = 'IN' THEN sm.quantity ELSE 0 END) AS quantityIn, " +
+            "SUM(CASE WHEN sm.type = 'OUT' THEN sm.quantity ELSE 0 END) AS quantityOut " +
+            "FROM stock_movements sm JOIN products p ON p.id = sm.product_id " +
+            "WHERE sm.created_at >= :since AND sm.type IN ('IN', 'OUT') " +
+            "GROUP BY sm.product_id, p.name, date_trunc('day', sm.created_at) ORDER BY 1, 3", nativeQuery = true)
+    List<ProductDailyMovementTotal> sumDailySince(@Param("since") LocalDateTime since);
 }
@@ -3,16 +3,19 @@ package com.warehouse.inventory.repository;
 import com.warehouse.inventory.entity.Product;
 import com.warehouse.inventory.entity.Warehouse;
 import com.warehouse.inventory.entity.WarehouseStock;
+import com.warehouse.inventory.repository.projection.StockLevel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long>, WarehouseStockRepositoryCustom {
 
     Optional<WarehouseStock> findByWarehouseAndProduct(Warehouse warehouse, Product product);
 
@@ -25,4 +28,130 @@ public interface WarehouseStockRepository extends JpaRepository<WarehouseStock,
 
     @Query("SELECT COALESCE(SUM(ws.quantity * ws.product.unitPrice), 0) FROM WarehouseStock ws")
     java.math.BigDecimal getTotalStockValue();
+
+    // Stock report pages: keyed on id across all warehouses, on product id within one
+    // warehouse so the (warehouse_id, product_id) unique index serves both filter and order.
+    @Query("SELECT ws FROM WarehouseStock ws JOIN FETCH ws.product JOIN FETCH ws.warehouse " +
+            "WHERE ws.id > :afterId ORDER BY ws.id")
+    List<WarehouseStock> findPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT ws FROM WarehouseStock ws JOIN FETCH ws.product p JOIN FETCH ws.warehouse w " +
+            "WHERE w.id = :warehouseId AND p.id > :afterProductId ORDER BY p.id")
+    List<WarehouseStock> findWarehousePageAfter(@Param("warehouseId") Long warehouseId,
+                                                @Param("afterProductId") long afterProductId,
+                                                Pageable pageable);
+
+    @Query(value = "SELECT ws.quantity FROM warehouse_stock ws " +
+            "WHERE ws.warehouse_id = :warehouseId AND ws.product_id = :productId", nativeQuery = true)
+    Optional<Integer> findQuantity(@Param("warehouseId") Long warehouseId, @Param("productId") Long productId);
+
+    /*
+     * Stock mutations below are single statements: Postgres takes the row lock, checks and
+     * writes atomically, so concurrent pickers cannot oversell or lose updates. They bump
+     * the @Version column so entity-based writers detect the change optimistically, and
+     * apply the same delta to product_stock_totals, returning the new total.
+     *
+     * Lock order is always warehouse_stock rows (by warehouse_id, product_id) before the
+     * product_stock_totals row, whose movement_version is bumped along with the total.
+     * Transfers do not change the total and leave the row untouched.
+     */
+
+    /**
+     * Adds {@code delta} to the stock row (creating it if missing) and to the product total.
+     */
+    @Transactional
+    @Query(value = "WITH changed AS (" +
+            "INSERT INTO warehouse_stock (warehouse_id, product_id, quantity, last_updated, version) " +
+            "VALUES (:warehouseId, :productId, :delta, now(), 0) " +
+            "ON CONFLICT (warehouse_id, product_id) DO UPDATE " +
+            "SET quantity = warehouse_stock.quantity + EXCLUDED.quantity, last_updated = EXCLUDED.last_updated, " +
+            "version = warehouse_stock.version + 1 " +
+            "RETURNING quantity), " +
+            TOTAL_DELTA_CTE + ":delta" + TOTAL_DELTA_CTE_END +
+            "SELECT c.quantity AS quantity, t.total_quantity AS totalStock FROM changed c CROSS JOIN total t",
+            nativeQuery = true)
+    StockLevel addStock(@Param("warehouseId") Long warehouseId,
+                        @Param("productId") Long productId,
+                        @Param("delta") int delta);
+
+    /**
+     * Subtracts {@code quantity} from the stock row and the product total, only if the row
+     * holds at least that much. Returns empty when the row is missing or the stock is insufficient.
+     */
+    @Transactional
+    @Query(value = "WITH changed AS (" +
+            "UPDATE warehouse_stock SET quantity = quantity - :quantity, last_updated = now(), version = version + 1 " +
+            "WHERE warehouse_id = :warehouseId AND product_id = :productId AND quantity >= :quantity " +
+            "RETURNING quantity), " +
+            TOTAL_DELTA_CTE + "0 - :quantity" + TOTAL_DELTA_CTE_END +
+            "SELECT c.quantity AS quantity, t.total_quantity AS totalStock FROM changed c CROSS JOIN total t",
+            nativeQuery = true)
+    Optional<StockLevel> removeStock(@Param("warehouseId") Long warehouseId,
+                                     @Param("productId") Long productId,
+                                     @Param("quantity") int quantity);
+
+    /**
+     * Overwrites a stock row previously locked with {@link #lockStock} whose quantity was
+     * {@code previous}, moving the product total by the difference.
+     */
+    @Transactional
+    @Query(value = "WITH changed AS (" +
+            "UPDATE warehouse_stock SET quantity = :quantity, last_updated = now(), version = version + 1 " +
+            "WHERE warehouse_id = :warehouseId AND product_id = :productId " +
+            "RETURNING quantity), " +
+            TOTAL_DELTA_CTE + ":quantity - :previous" + TOTAL_DELTA_CTE_END +
+            "SELECT c.quantity AS quantity, t.total_quantity AS totalStock FROM changed c CROSS JOIN total t",
+            nativeQuery = true)
+    StockLevel setStock(@Param("warehouseId") Long warehouseId,
+                        @Param("productId") Long productId,
+                        @Param("quantity") int quantity,
+                        @Param("previous") int previous);
+
+    /**
+     * Transfer leg into a warehouse: like {@link #addStock} but leaves the product total alone.
+     */
+    @Transactional
+    @Query(value = "WITH changed AS (" +
+            "INSERT INTO warehouse_stock (warehouse_id, product_id, quantity, last_updated, version) " +
+            "VALUES (:warehouseId, :productId, :quantity, now(), 0) " +
+            "ON CONFLICT (warehouse_id, product_id) DO UPDATE " +
+            "SET quantity = warehouse_stock.quantity + EXCLUDED.quantity, last_updated = EXCLUDED.last_updated, " +
+            "version = warehouse_stock.version + 1 " +
+            "RETURNING quantity) " +
+            "SELECT c.quantity AS quantity, (SELECT t.total_quantity FROM product_stock_totals t " +
+            "WHERE t.product_id = :productId) AS totalStock FROM changed c", nativeQuery = true)
+    StockLevel transferIn(@Param("warehouseId") Long warehouseId,
+                          @Param("productId") Long productId,
+                          @Param("quantity") int quantity);
+
+    /**
+     * Transfer leg out of a warehouse: like {@link #removeStock} but leaves the product total alone.
+     */
+    @Transactional
+    @Query(value = "WITH changed AS (" +
+            "UPDATE warehouse_stock SET quantity = quantity - :quantity, last_updated = now(), version = version + 1 " +
+            "WHERE warehouse_id = :warehouseId AND product_id = :productId AND quantity >= :quantity " +
+            "RETURNING quantity) " +
+            "SELECT c.quantity AS quantity, (SELECT t.total_quantity FROM product_stock_totals t " +
+            "WHERE t.product_id = :productId) AS totalStock FROM changed c", nativeQuery = true)
+    Optional<StockLevel> transferOut(@Param("warehouseId") Long warehouseId,
+                                     @Param("productId") Long productId,
+                                     @Param("quantity") int quantity);
+
+    // The low_stock flag is re-derived from the new total in the same statement
+    String TOTAL_DELTA_CTE = "total AS (" +
+            "INSERT INTO product_stock_totals (product_id, total_quantity, updated_at, movement_version, low_stock) " +
+            "SELECT :productId, d.delta, now(), 1, " +
+            ProductStockTotalRepository.LOW_STOCK_IF + "d.delta" + ProductStockTotalRepository.LOW_STOCK_AT +
+            ":productId" + ProductStockTotalRepository.LOW_STOCK_END + " " +
+            "FROM changed CROSS JOIN (SELECT ";
+
+    String TOTAL_DELTA_CTE_END = " AS delta) d " +
+            "ON CONFLICT (product_id) DO UPDATE " +
+            "SET total_quantity = product_stock_totals.total_quantity + EXCLUDED.total_quantity, " +
+            "updated_at = EXCLUDED.updated_at, movement_version = product_stock_totals.movement_version + 1, " +
+            "low_stock = " + ProductStockTotalRepository.LOW_STOCK_IF +
+            "product_stock_totals.total_quantity + EXCLUDED.total_quantity" + ProductStockTotalRepository.LOW_STOCK_AT +
+            "EXCLUDED.product_id" + ProductStockTotalRepository.LOW_STOCK_END + " " +
+            "RETURNING total_quantity) ";
 }
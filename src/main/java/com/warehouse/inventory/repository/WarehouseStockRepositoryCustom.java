@@ -0,0 +1,33 @@
+package com.warehouse.inventory.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Bulk stock operations executed with plain JDBC batches.
+ */
+public interface WarehouseStockRepositoryCustom {
+
+    /**
+     * Locks the given stock rows in key order, creating missing rows with quantity 0,
+     * and returns their current quantities along with the keys of the created rows.
+     */
+    LockedStock lockStock(Collection<StockKey> keys);
+
+    /**
+     * Deletes rows created by {@link #lockStock} that nothing wrote to, so a failed
+     * withdrawal does not leave an empty row behind. Rows holding stock are kept.
+     */
+    void deleteEmptyStock(Collection<StockKey> keys);
+
+    /**
+     * Writes the final quantities of previously locked rows in one JDBC batch.
+     */
+    void updateQuantities(Map<StockKey, Integer> quantities);
+
+    /**
+     * Applies per-product deltas to product_stock_totals in one JDBC batch, in product id order,
+     * bumping each row's movement_version. A zero delta only bumps the version.
+     */
+    void addToProductTotals(Map<Long, Integer> deltas);
+}
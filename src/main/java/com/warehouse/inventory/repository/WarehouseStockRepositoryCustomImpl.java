@@ -0,0 +1,95 @@
+package com.warehouse.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class WarehouseStockRepositoryCustomImpl implements WarehouseStockRepositoryCustom {
+
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public LockedStock lockStock(Collection<StockKey> keys) {
+        List<StockKey> sorted = keys.stream().distinct().sorted().collect(Collectors.toList());
+        Map<StockKey, Integer> quantities = new HashMap<>();
+        Set<StockKey> created = new HashSet<>();
+
+        // The no-op DO UPDATE takes the row lock on existing rows; Postgres processes the
+        // VALUES list in order, so rows are locked in key order in a single round trip.
+        for (int from = 0; from < sorted.size(); from += LOCK_CHUNK_SIZE) {
+            List<StockKey> chunk = sorted.subList(from, Math.min(from + LOCK_CHUNK_SIZE, sorted.size()));
+            String values = String.join(",", Collections.nCopies(chunk.size(), "(?, ?, 0, now(), 0)"));
+            List<Object> params = new ArrayList<>(chunk.size() * 2);
+            for (StockKey key : chunk) {
+                params.add(key.getWarehouseId());
+                params.add(key.getProductId());
+            }
+
+            jdbcTemplate.query("INSERT INTO warehouse_stock (warehouse_id, product_id, quantity, last_updated, version) " +
+                            "VALUES " + values + " " +
+                            "ON CONFLICT (warehouse_id, product_id) DO UPDATE SET quantity = warehouse_stock.quantity " +
+                            "RETURNING warehouse_id, product_id, quantity, xmax = 0 AS inserted",
+                    rs -> {
+                        StockKey key = new StockKey(rs.getLong("warehouse_id"), rs.getLong("product_id"));
+                        quantities.put(key, rs.getInt("quantity"));
+                        if (rs.getBoolean("inserted")) {
+                            created.add(key);
+                        }
+                    },
+                    params.toArray());
+        }
+        return new LockedStock(quantities, created);
+    }
+
+    @Override
+    public void deleteEmptyStock(Collection<StockKey> keys) {
+        List<Object[]> rows = keys.stream()
+                .sorted()
+                .map(key -> new Object[]{key.getWarehouseId(), key.getProductId()})
+                .collect(Collectors.toList());
+
+        jdbcTemplate.batchUpdate("DELETE FROM warehouse_stock WHERE warehouse_id = ? AND product_id = ? " +
+                "AND quantity = 0", rows);
+    }
+
+    @Override
+    public void updateQuantities(Map<StockKey, Integer> quantities) {
+        List<Object[]> rows = quantities.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new Object[]{e.getValue(), e.getKey().getWarehouseId(), e.getKey().getProductId()})
+                .collect(Collectors.toList());
+
+        jdbcTemplate.batchUpdate("UPDATE warehouse_stock SET quantity = ?, last_updated = now(), " +
+                "version = version + 1 WHERE warehouse_id = ? AND product_id = ?", rows);
+    }
+
+    @Override
+    public void addToProductTotals(Map<Long, Integer> deltas) {
+        List<Object[]> rows = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new Object[]{e.getKey(), e.getValue(), e.getValue(), e.getKey()})
+                .collect(Collectors.toList());
+
+        jdbcTemplate.batchUpdate("INSERT INTO product_stock_totals (product_id, total_quantity, updated_at, " +
+                "movement_version, low_stock) VALUES (?, ?, now(), 1, " +
+                ProductStockTotalRepository.LOW_STOCK_IF + "?" + ProductStockTotalRepository.LOW_STOCK_AT + "?" +
+                ProductStockTotalRepository.LOW_STOCK_END + ") ON CONFLICT (product_id) DO UPDATE " +
+                "SET total_quantity = product_stock_totals.total_quantity + EXCLUDED.total_quantity, " +
+                "updated_at = EXCLUDED.updated_at, movement_version = product_stock_totals.movement_version + 1, " +
+                "low_stock = " + ProductStockTotalRepository.LOW_STOCK_IF +
+                "product_stock_totals.total_quantity + EXCLUDED.total_quantity" + ProductStockTotalRepository.LOW_STOCK_AT +
+                "EXCLUDED.product_id" + ProductStockTotalRepository.LOW_STOCK_END, rows);
+    }
+}
@@ -0,0 +1,16 @@
+package com.warehouse.inventory.repository.projection;
+
+/**
+ * Active product count and on-hand quantity for one category, either for the category
+ * itself or rolled up over its whole subtree.
+ */
+public interface CategoryTotal {
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+
+    Long getTotalQuantity();
+}
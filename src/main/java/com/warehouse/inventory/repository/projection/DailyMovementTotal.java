@@ -0,0 +1,15 @@
+package com.warehouse.inventory.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * IN and OUT quantities of one product on one day.
+ */
+public interface DailyMovementTotal {
+
+    LocalDate getDay();
+
+    Long getQuantityIn();
+
+    Long getQuantityOut();
+}
@@ -0,0 +1,15 @@
+package com.warehouse.inventory.repository.projection;
+
+import com.warehouse.inventory.enums.MovementType;
+
+/**
+ * Movement count and moved quantity for one movement type over a date range.
+ */
+public interface MovementTypeTotal {
+
+    MovementType getType();
+
+    Long getMovementCount();
+
+    Long getTotalQuantity();
+}
@@ -0,0 +1,11 @@
+package com.warehouse.inventory.repository.projection;
+
+/**
+ * IN and OUT quantities of one product on one day, with the product it belongs to.
+ */
+public interface ProductDailyMovementTotal extends DailyMovementTotal {
+
+    Long getProductId();
+
+    String getProductName();
+}
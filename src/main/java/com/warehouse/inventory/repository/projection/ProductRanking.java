@@ -0,0 +1,25 @@
+package com.warehouse.inventory.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a top-K product ranking; {@code score} is the value of the metric ranked on.
+ */
+public interface ProductRanking {
+
+    Long getProductId();
+
+    String getSku();
+
+    String getName();
+
+    String getCategoryName();
+
+    Long getTotalQuantity();
+
+    BigDecimal getUnitPrice();
+
+    BigDecimal getCostPrice();
+
+    BigDecimal getScore();
+}
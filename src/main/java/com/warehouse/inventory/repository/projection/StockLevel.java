@@ -0,0 +1,12 @@
+package com.warehouse.inventory.repository.projection;
+
+/**
+ * Result of an atomic stock mutation: the new quantity of the touched
+ * warehouse row and the product's total across all warehouses.
+ */
+public interface StockLevel {
+
+    Integer getQuantity();
+
+    Integer getTotalStock();
+}
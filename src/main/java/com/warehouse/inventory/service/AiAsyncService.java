@@ -0,0 +1,110 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.dto.response.AiQueryResponse;
+import com.warehouse.inventory.dto.response.AnomalyResult;
+import com.warehouse.inventory.dto.response.ForecastResponse;
+import com.warehouse.inventory.dto.response.ReorderSuggestion;
+import com.warehouse.inventory.exception.AiServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link AiIntegrationService} calls run on a small dedicated pool, so a request waiting on
+ * the AI service holds a queue slot instead of a Tomcat worker thread. The pool is as large
+ * as the AI bulkhead, since more threads would only be rejected there; a full queue fails
+ * the call at once instead of piling up. Each endpoint also has its own limit of calls in
+ * flight: as many as the threads could finish within the async timeout at the endpoint's read
+ * timeout, so slow endpoints do not queue work that could only end in a timeout page.
+ */
+@Slf4j
+@Service
+public class AiAsyncService {
+
+    private final AiIntegrationService aiIntegrationService;
+    private final ExecutorService executor;
+    private final Map<AiServiceClient.Endpoint, Semaphore> inFlight = new EnumMap<>(AiServiceClient.Endpoint.class);
+
+    public AiAsyncService(AiIntegrationService aiIntegrationService,
+                          AiServiceClient aiServiceClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${ai.async.threads:20}") int threads,
+                          @Value("${ai.async.queue-capacity:60}") int queueCapacity,
+                          @Value("${ai.async.timeout-ms:20000}") long timeoutMs) {
+        this.aiIntegrationService = aiIntegrationService;
+        for (AiServiceClient.Endpoint endpoint : AiServiceClient.Endpoint.values()) {
+            long callsPerThread = Math.max(1, timeoutMs / aiServiceClient.getTimeoutMs(endpoint));
+            inFlight.put(endpoint, new Semaphore((int) (threads * callsPerThread)));
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ai-async-"));
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "ai.async");
+    }
+
+    public CompletableFuture<ForecastResponse> getForecast(Long productId) {
+        return submit(AiServiceClient.Endpoint.FORECAST, () -> aiIntegrationService.getForecast(productId));
+    }
+
+    public CompletableFuture<List<ReorderSuggestion>> getReorderSuggestions() {
+        return submit(AiServiceClient.Endpoint.REORDER, aiIntegrationService::getReorderSuggestions);
+    }
+
+    public CompletableFuture<List<AnomalyResult>> detectAnomalies() {
+        return submit(AiServiceClient.Endpoint.ANOMALY, aiIntegrationService::detectAnomalies);
+    }
+
+    public CompletableFuture<AiQueryResponse> queryNaturalLanguage(String question, String language) {
+        return submit(AiServiceClient.Endpoint.QUERY,
+                () -> aiIntegrationService.queryNaturalLanguage(question, language));
+    }
+
+    private <T> CompletableFuture<T> submit(AiServiceClient.Endpoint endpoint, Supplier<T> call) {
+        Semaphore slots = inFlight.get(endpoint);
+        if (!slots.tryAcquire()) {
+            log.warn("Too many AI {} calls in flight, rejecting call", endpoint);
+            return rejected();
+        }
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            log.warn("AI request queue full, rejecting call");
+            return rejected();
+        }
+        // Also runs when a timed-out call is cancelled before it started
+        future.whenComplete((result, e) -> slots.release());
+        return future;
+    }
+
+    private static <T> CompletableFuture<T> rejected() {
+        CompletableFuture<T> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new AiServiceException("Dịch vụ AI đang quá tải, vui lòng thử lại sau"));
+        return rejected;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int dropped = executor.shutdownNow().size();
+        if (dropped > 0) {
+            log.warn("AI async pool stopped with {} queued calls", dropped);
+        }
+    }
+}
@@ -1,27 +1,26 @@
 package com.warehouse.inventory.service;
 
+import com.warehouse.inventory.dto.request.ForecastBatchRequest;
 import com.warehouse.inventory.dto.response.AiQueryResponse;
 import com.warehouse.inventory.dto.response.AnomalyResult;
 import com.warehouse.inventory.dto.response.ForecastResponse;
 import com.warehouse.inventory.dto.response.ReorderSuggestion;
 import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.ProductStockTotal;
 import com.warehouse.inventory.entity.StockMovement;
+import com.warehouse.inventory.enums.PredictionType;
 import com.warehouse.inventory.exception.AiServiceException;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
 import com.warehouse.inventory.repository.WarehouseStockRepository;
+import com.warehouse.inventory.util.DemandSeries;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -31,6 +30,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -39,79 +41,98 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AiIntegrationService {
 
-    private final RestTemplate restTemplate;
+    private final AiServiceClient aiServiceClient;
     private final ProductService productService;
     private final StockMovementService stockMovementService;
     private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductStockTotalRepository productStockTotalRepository;
+    private final AiPredictionService aiPredictionService;
+    private final LocalForecastService localForecastService;
 
-    @Value("${ai.service.url:http://localhost:8000}")
-    private String aiServiceUrl;
+    private static final int FORECAST_DAYS = 30;
+    private static final int ANOMALY_DAYS = 90;
+    private static final String AI_SOURCE = "AI";
+
+    @Value("${ai.forecast.lookback-days:180}")
+    private int lookbackDays;
 
     /**
      * Get demand forecast for a specific product.
-     * Sends historical movement data to Python FastAPI service.
+     * Sends the product's daily demand series to Python FastAPI service.
+     * Cached per product movement version: any stock movement of the product moves it to a
+     * new key, and a hit costs one primary key lookup instead of a call to the AI service.
+     * A cache miss is served from the stored prediction for the same version when it is
+     * still valid, and every fresh forecast is stored.
+     * Series without any outbound demand are forecast locally without a call, and so is every
+     * product while the AI service is unreachable; local forecasts are neither cached nor
+     * stored, so the next call tries the AI service again.
      */
-    @Cacheable(value = "forecasts", key = "#productId", unless = "#result == null")
+    @Transactional
+    @Cacheable(value = "forecasts", unless = "#result == null or #result.source == 'LOCAL'",
+            key = "#productId + ':' + @productStockTotalRepository.findMovementVersion(#productId).orElse(0L)")
     public ForecastResponse getForecast(Long productId) {
+        long movementVersion = productStockTotalRepository.findMovementVersion(productId).orElse(0L);
+        Integer currentStock = productStockTotalRepository.findTotalQuantity(productId).orElse(0);
+        Optional<ForecastResponse> stored = aiPredictionService.findValidForecast(productId, movementVersion);
+        if (stored.isPresent()) {
+            log.debug("Serving stored forecast for product: {} (version {})", productId, movementVersion);
+            // Batch forecasts carry no stock figure
+            stored.get().setCurrentStock(currentStock);
+            return stored.get();
+        }
+
+        Product product = productService.findById(productId);
+        DemandSeries series = stockMovementService.getDemandSeries(productId, lookbackDays);
+        if (series.totalOut() == 0) {
+            log.debug("No outbound demand for product: {}, forecasting locally", productId);
+            return localForecast(product, series, currentStock);
+        }
         log.info("Getting AI forecast for product: {}", productId);
 
         try {
-            Product product = productService.findById(productId);
-            Integer currentStock = warehouseStockRepository.getTotalStockByProductId(productId);
-
-            // Prepare historical data
-            List<StockMovement> movements = stockMovementService.findByProduct(productId);
-            List<Map<String, Object>> historicalData = movements.stream()
-                    .map(m -> {
-                        Map<String, Object> entry = new HashMap<>();
-                        entry.put("date", m.getCreatedAt().format(DateTimeFormatter.ISO_DATE));
-                        entry.put("quantity", m.getQuantity());
-                        entry.put("type", m.getType().name());
-                        return entry;
-                    })
-                    .collect(Collectors.toList());
+            // One gap-filled row per day of the lookback window instead of one per movement
+            ForecastBatchRequest.Item requestBody = ForecastBatchRequest.Item.builder()
+                    .productId(productId)
+                    .productName(product.getName())
+                    .historicalData(series)
+                    .forecastDays(FORECAST_DAYS)
+                    .build();
 
-            // Build request payload
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("productId", productId);
-            requestBody.put("productName", product.getName());
-            requestBody.put("currentStock", currentStock != null ? currentStock : 0);
-            requestBody.put("historicalData", historicalData);
-            requestBody.put("days", 30);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<ForecastResponse> response = restTemplate.exchange(
-                    aiServiceUrl + "/api/ai/forecast",
-                    HttpMethod.POST,
-                    entity,
+            ForecastResponse forecast = aiServiceClient.post(AiServiceClient.Endpoint.FORECAST, requestBody,
                     ForecastResponse.class);
-
-            ForecastResponse forecast = response.getBody();
             if (forecast != null) {
                 forecast.setProductId(productId);
                 forecast.setProductName(product.getName());
-                forecast.setCurrentStock(currentStock != null ? currentStock : 0);
+                forecast.setCurrentStock(currentStock);
+                forecast.setSource(AI_SOURCE);
+                aiPredictionService.saveForecast(forecast, movementVersion);
             }
 
             return forecast;
 
         } catch (RestClientException e) {
-            log.error("Failed to get forecast from AI service: {}", e.getMessage());
-            throw new AiServiceException("Không thể kết nối đến dịch vụ AI để dự báo nhu cầu", e);
-        } catch (AiServiceException e) {
-            throw e;
+            log.warn("Failed to get forecast from AI service, forecasting locally: {}", e.getMessage());
+            return localForecast(product, series, currentStock);
         } catch (Exception e) {
             log.error("Unexpected error getting forecast: {}", e.getMessage(), e);
             throw new AiServiceException("Lỗi không mong đợi khi gọi dịch vụ AI", e);
         }
     }
 
+    private ForecastResponse localForecast(Product product, DemandSeries series, Integer currentStock) {
+        ForecastResponse forecast = localForecastService.forecast(product.getId(), product.getName(), series,
+                FORECAST_DAYS);
+        forecast.setCurrentStock(currentStock);
+        return forecast;
+    }
+
     /**
      * Get reorder suggestions for low stock products.
+     * Served from the latest stored run while it is valid and was asked about every product
+     * that is low on stock now, including products it had no suggestion for; fallback
+     * suggestions are never stored.
      */
+    @Transactional
     public List<ReorderSuggestion> getReorderSuggestions() {
         log.info("Getting AI reorder suggestions");
 
@@ -123,9 +144,21 @@ public class AiIntegrationService {
                 return Collections.emptyList();
             }
 
+            Set<Long> lowStockIds = lowStockProducts.stream().map(Product::getId).collect(Collectors.toSet());
+            Optional<AiPredictionService.StoredRun<ReorderSuggestion>> stored = aiPredictionService.findLatestRun(
+                    PredictionType.REORDER, ReorderSuggestion.class);
+            if (stored.isPresent() && stored.get().covers(lowStockIds)) {
+                List<ReorderSuggestion> suggestions = stored.get().getResults().stream()
+                        .filter(s -> lowStockIds.contains(s.getProductId()))
+                        .collect(Collectors.toList());
+                log.debug("Serving {} stored reorder suggestions", suggestions.size());
+                return suggestions;
+            }
+
+            Map<Long, Integer> totals = findTotals(lowStockProducts);
             List<Map<String, Object>> productsData = lowStockProducts.stream()
                     .map(p -> {
-                        Integer stock = warehouseStockRepository.getTotalStockByProductId(p.getId());
+                        Integer stock = totals.get(p.getId());
                         Map<String, Object> data = new HashMap<>();
                         data.put("productId", p.getId());
                         data.put("productName", p.getName());
@@ -142,17 +175,12 @@ public class AiIntegrationService {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("products", productsData);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<List<ReorderSuggestion>> response = restTemplate.exchange(
-                    aiServiceUrl + "/api/ai/reorder",
-                    HttpMethod.POST,
-                    entity,
+            List<ReorderSuggestion> response = aiServiceClient.post(AiServiceClient.Endpoint.REORDER, requestBody,
                     new ParameterizedTypeReference<List<ReorderSuggestion>>() {});
-
-            return response.getBody() != null ? response.getBody() : Collections.emptyList();
+            List<ReorderSuggestion> suggestions = response != null ? response : Collections.emptyList();
+            aiPredictionService.saveRun(PredictionType.REORDER, lowStockIds, suggestions,
+                    ReorderSuggestion::getProductId, s -> null);
+            return suggestions;
 
         } catch (RestClientException e) {
             log.error("Failed to get reorder suggestions from AI service: {}", e.getMessage());
@@ -166,13 +194,21 @@ public class AiIntegrationService {
 
     /**
      * Detect anomalies in stock movement data.
+     * Served from the latest stored run while it is valid, also when that run found nothing.
      */
+    @Transactional
     public List<AnomalyResult> detectAnomalies() {
+        Optional<AiPredictionService.StoredRun<AnomalyResult>> stored = aiPredictionService.findLatestRun(
+                PredictionType.ANOMALY, AnomalyResult.class);
+        if (stored.isPresent()) {
+            log.debug("Serving {} stored anomaly results", stored.get().getResults().size());
+            return stored.get().getResults();
+        }
         log.info("Detecting anomalies via AI service");
 
         try {
             List<StockMovement> recentMovements = stockMovementService.getDailyStats(
-                    LocalDateTime.now().minusDays(90), LocalDateTime.now());
+                    LocalDateTime.now().minusDays(ANOMALY_DAYS), LocalDateTime.now());
 
             List<Map<String, Object>> movementData = recentMovements.stream()
                     .map(m -> {
@@ -190,21 +226,17 @@ public class AiIntegrationService {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("movements", movementData);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<List<AnomalyResult>> response = restTemplate.exchange(
-                    aiServiceUrl + "/api/ai/anomaly",
-                    HttpMethod.POST,
-                    entity,
+            List<AnomalyResult> response = aiServiceClient.post(AiServiceClient.Endpoint.ANOMALY, requestBody,
                     new ParameterizedTypeReference<List<AnomalyResult>>() {});
-
-            return response.getBody() != null ? response.getBody() : Collections.emptyList();
+            List<AnomalyResult> anomalies = response != null ? response : Collections.emptyList();
+            aiPredictionService.saveRun(PredictionType.ANOMALY, null, anomalies, AnomalyResult::getProductId,
+                    AnomalyResult::getScore);
+            return anomalies;
 
         } catch (RestClientException e) {
-            log.error("Failed to detect anomalies from AI service: {}", e.getMessage());
-            throw new AiServiceException("Không thể kết nối đến dịch vụ AI để phát hiện bất thường", e);
+            log.warn("Failed to detect anomalies from AI service, checking locally: {}", e.getMessage());
+            // Fallback: z-score check per product, not stored so the next call retries the AI service
+            return localForecastService.detectAnomalies(ANOMALY_DAYS);
         } catch (Exception e) {
             log.error("Unexpected error detecting anomalies: {}", e.getMessage(), e);
             throw new AiServiceException("Lỗi không mong đợi khi gọi dịch vụ AI", e);
@@ -237,17 +269,8 @@ public class AiIntegrationService {
             requestBody.put("language", language);
             requestBody.put("context", context);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<AiQueryResponse> response = restTemplate.exchange(
-                    aiServiceUrl + "/api/ai/query",
-                    HttpMethod.POST,
-                    entity,
+            AiQueryResponse result = aiServiceClient.post(AiServiceClient.Endpoint.QUERY, requestBody,
                     AiQueryResponse.class);
-
-            AiQueryResponse result = response.getBody();
             if (result != null) {
                 result.setQuestion(question);
             }
@@ -264,15 +287,19 @@ public class AiIntegrationService {
 
     /**
      * Fallback: generate basic reorder suggestions without AI service.
+     * Days until stockout come from the stored forecast when there is one, e.g. from the
+     * nightly batch, and from fixed guesses per urgency otherwise.
      */
     private List<ReorderSuggestion> generateBasicReorderSuggestions() {
         log.info("Generating basic reorder suggestions (AI fallback)");
 
         List<Product> lowStockProducts = productService.findLowStock();
+        Map<Long, Integer> totals = findTotals(lowStockProducts);
+        Map<Long, ForecastResponse> forecasts = aiPredictionService.findLatestForecasts(totals.keySet());
         List<ReorderSuggestion> suggestions = new ArrayList<>();
 
         for (Product product : lowStockProducts) {
-            Integer currentStock = warehouseStockRepository.getTotalStockByProductId(product.getId());
+            Integer currentStock = totals.get(product.getId());
             int stock = currentStock != null ? currentStock : 0;
             int reorderPoint = product.getReorderPoint() != null ? product.getReorderPoint() : 0;
             int maxLevel = product.getMaxStockLevel() != null ? product.getMaxStockLevel() : reorderPoint * 3;
@@ -293,6 +320,10 @@ public class AiIntegrationService {
                 urgency = "MEDIUM";
                 daysUntilStockout = 7;
             }
+            double dailyDemand = averageDemand(forecasts.get(product.getId()));
+            if (stock > 0 && dailyDemand > 0) {
+                daysUntilStockout = (int) Math.floor(stock / dailyDemand);
+            }
 
             suggestions.add(ReorderSuggestion.builder()
                     .productId(product.getId())
@@ -308,4 +339,22 @@ public class AiIntegrationService {
 
         return suggestions;
     }
+
+    private static double averageDemand(ForecastResponse forecast) {
+        if (forecast == null || forecast.getPredictions() == null) {
+            return 0;
+        }
+        return forecast.getPredictions().stream()
+                .map(ForecastResponse.DayPrediction::getPredictedDemand)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .average()
+                .orElse(0);
+    }
+
+    private Map<Long, Integer> findTotals(List<Product> products) {
+        List<Long> ids = products.stream().map(Product::getId).collect(Collectors.toList());
+        return productStockTotalRepository.findByProductIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductStockTotal::getProductId, ProductStockTotal::getTotalQuantity));
+    }
 }
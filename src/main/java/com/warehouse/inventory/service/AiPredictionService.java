@@ -0,0 +1,235 @@
+package com.warehouse.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.inventory.dto.response.ForecastResponse;
+import com.warehouse.inventory.entity.AiPrediction;
+import com.warehouse.inventory.entity.AiPredictionRun;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.enums.PredictionType;
+import com.warehouse.inventory.repository.AiPredictionRepository;
+import com.warehouse.inventory.repository.AiPredictionRunRepository;
+import com.warehouse.inventory.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Durable store for AI service results in ai_predictions. Results are served from the table
+ * while their validity window lasts, so a restart or a Redis flush does not send every
+ * request back to the AI service at once.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class AiPredictionService {
+
+    private static final TypeReference<Set<Long>> PRODUCT_IDS = new TypeReference<>() {
+    };
+
+    private final AiPredictionRepository aiPredictionRepository;
+    private final AiPredictionRunRepository aiPredictionRunRepository;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ai.prediction.forecast-valid-hours:24}")
+    private long forecastValidHours;
+
+    @Value("${ai.prediction.reorder-valid-minutes:30}")
+    private long reorderValidMinutes;
+
+    @Value("${ai.prediction.anomaly-valid-minutes:360}")
+    private long anomalyValidMinutes;
+
+    @Value("${ai.prediction.retention-days:30}")
+    private long retentionDays;
+
+    /**
+     * Latest forecast for the product that is still valid and was computed from its current
+     * movement version.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ForecastResponse> findValidForecast(Long productId, long movementVersion) {
+        return aiPredictionRepository
+                .findFirstByProductIdAndPredictionTypeAndMovementVersionAndValidUntilAfterOrderByCreatedAtDesc(
+                        productId, PredictionType.DEMAND_FORECAST, movementVersion, LocalDateTime.now())
+                .map(p -> read(p, ForecastResponse.class));
+    }
+
+    /**
+     * Latest valid forecast per product whatever its movement version, for callers that only
+     * need a demand estimate, such as the reorder fallback.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ForecastResponse> findLatestForecasts(Collection<Long> productIds) {
+        Map<Long, ForecastResponse> forecasts = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return forecasts;
+        }
+        for (AiPrediction prediction : aiPredictionRepository.findValidByProductIds(
+                productIds, PredictionType.DEMAND_FORECAST, LocalDateTime.now())) {
+            if (!forecasts.containsKey(prediction.getProduct().getId())) {
+                ForecastResponse forecast = read(prediction, ForecastResponse.class);
+                if (forecast != null) {
+                    forecasts.put(prediction.getProduct().getId(), forecast);
+                }
+            }
+        }
+        return forecasts;
+    }
+
+    public void saveForecast(ForecastResponse forecast, long movementVersion) {
+        aiPredictionRepository.save(forecastRow(forecast, movementVersion));
+    }
+
+    /**
+     * Stores forecasts computed from the given per-product movement versions in one transaction.
+     */
+    public void saveForecasts(List<ForecastResponse> forecasts, Map<Long, Long> movementVersions) {
+        aiPredictionRepository.saveAll(forecasts.stream()
+                .filter(f -> movementVersions.containsKey(f.getProductId()))
+                .map(f -> forecastRow(f, movementVersions.get(f.getProductId())))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Latest still-valid run of a catalog-wide prediction, empty when there is none. A run
+     * that found nothing comes back with no results, so it is served like any other.
+     */
+    @Transactional(readOnly = true)
+    public <T> Optional<StoredRun<T>> findLatestRun(PredictionType type, Class<T> resultType) {
+        Optional<AiPredictionRun> run = aiPredictionRunRepository
+                .findFirstByPredictionTypeAndValidUntilAfterOrderByValidUntilDesc(type, LocalDateTime.now());
+        if (run.isEmpty()) {
+            return Optional.empty();
+        }
+        List<T> results = new ArrayList<>();
+        for (AiPrediction prediction : aiPredictionRepository.findByPredictionTypeAndValidUntilOrderByIdAsc(
+                type, run.get().getValidUntil())) {
+            T result = read(prediction, resultType);
+            if (result == null) {
+                return Optional.empty();
+            }
+            results.add(result);
+        }
+        Set<Long> productIds = run.get().getProductIds() != null
+                ? read(run.get().getProductIds(), PRODUCT_IDS) : null;
+        return Optional.of(new StoredRun<>(productIds, results));
+    }
+
+    /**
+     * Stores a run of a catalog-wide prediction with one row per result, plus a run record
+     * so that a run without results is served too. {@code productIds} are the products the
+     * run was asked about, or null for the whole catalog. Results without a known product
+     * are skipped, since every row belongs to a product.
+     */
+    public <T> void saveRun(PredictionType type, Collection<Long> productIds, List<T> results,
+                            Function<T, Long> productId, Function<T, Double> confidence) {
+        Map<Long, Product> products = productRepository.findAllById(results.stream()
+                        .map(productId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Truncated to what PostgreSQL stores, since the rows are found again by this value
+        LocalDateTime validUntil = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).plusMinutes(
+                type == PredictionType.REORDER ? reorderValidMinutes : anomalyValidMinutes);
+        List<AiPrediction> rows = results.stream()
+                .filter(r -> products.containsKey(productId.apply(r)))
+                .map(r -> AiPrediction.builder()
+                        .product(products.get(productId.apply(r)))
+                        .predictionType(type)
+                        .predictionData(write(r))
+                        .confidence(confidence.apply(r))
+                        .validUntil(validUntil)
+                        .build())
+                .collect(Collectors.toList());
+        aiPredictionRepository.saveAll(rows);
+        aiPredictionRunRepository.save(AiPredictionRun.builder()
+                .predictionType(type)
+                .productIds(productIds != null ? write(new TreeSet<>(productIds)) : null)
+                .resultCount(rows.size())
+                .validUntil(validUntil)
+                .build());
+        log.debug("Stored {} {} predictions valid until {}", rows.size(), type, validUntil);
+    }
+
+    @Scheduled(cron = "${ai.prediction.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int deleted = aiPredictionRepository.deleteExpiredBefore(before);
+        aiPredictionRunRepository.deleteExpiredBefore(before);
+        log.info("Purged {} expired AI predictions", deleted);
+    }
+
+    private AiPrediction forecastRow(ForecastResponse forecast, long movementVersion) {
+        return AiPrediction.builder()
+                .product(productRepository.getReferenceById(forecast.getProductId()))
+                .predictionType(PredictionType.DEMAND_FORECAST)
+                .predictionData(write(forecast))
+                .confidence(forecast.getConfidence())
+                .validUntil(LocalDateTime.now().plusHours(forecastValidHours))
+                .movementVersion(movementVersion)
+                .build();
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize AI prediction", e);
+        }
+    }
+
+    // A row written by an older result shape reads as a miss rather than an error
+    private <T> T read(AiPrediction prediction, Class<T> resultType) {
+        try {
+            return objectMapper.readValue(prediction.getPredictionData(), resultType);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable AI prediction {}: {}", prediction.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored AI prediction run", e);
+        }
+    }
+
+    /**
+     * Results of a stored run and the products it was asked about; {@code productIds} is null
+     * when the run covered the whole catalog.
+     */
+    @lombok.Value
+    public static class StoredRun<T> {
+        Set<Long> productIds;
+        List<T> results;
+
+        public boolean covers(Collection<Long> ids) {
+            return productIds == null || productIds.containsAll(ids);
+        }
+    }
+}
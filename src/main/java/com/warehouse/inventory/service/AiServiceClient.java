@@ -0,0 +1,127 @@
+package com.warehouse.inventory.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Calls to the AI service's interactive endpoints. Every call shares one pooled keep-alive
+ * client, has its endpoint's read timeout, goes through its endpoint's circuit breaker and
+ * holds a slot of the shared "ai" bulkhead while it runs. An open breaker or a full bulkhead
+ * fails the call at once with a {@link ResourceAccessException}, so callers fall back exactly
+ * as they do when the service is unreachable, and Tomcat threads are not parked behind a
+ * degraded service. Breaker and bulkhead state is on the circuitbreakers and bulkheads
+ * Actuator endpoints.
+ */
+@Slf4j
+@Component
+public class AiServiceClient {
+
+    public enum Endpoint {
+        FORECAST("/api/ai/forecast"),
+        REORDER("/api/ai/reorder"),
+        ANOMALY("/api/ai/anomaly"),
+        QUERY("/api/ai/query");
+
+        private final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+
+        /** Name of the endpoint's circuit breaker, e.g. ai-forecast. */
+        public String key() {
+            return "ai-" + name().toLowerCase();
+        }
+    }
+
+    public static final String BULKHEAD = "ai";
+
+    private final Map<Endpoint, RestTemplate> restTemplates = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Long> timeouts = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(Endpoint.class);
+    private final Bulkhead bulkhead;
+
+    @Value("${ai.service.url:http://localhost:8000}")
+    private String aiServiceUrl;
+
+    public AiServiceClient(RestTemplateBuilder restTemplateBuilder,
+                           CloseableHttpClient aiHttpClient,
+                           CircuitBreakerRegistry circuitBreakerRegistry,
+                           BulkheadRegistry bulkheadRegistry,
+                           Environment environment) {
+        long defaultTimeoutMs = environment.getProperty("ai.service.timeout", Long.class, 5000L);
+        for (Endpoint endpoint : Endpoint.values()) {
+            long timeoutMs = environment.getProperty("ai.client." + endpoint.name().toLowerCase() + ".timeout-ms",
+                    Long.class, defaultTimeoutMs);
+            timeouts.put(endpoint, timeoutMs);
+            restTemplates.put(endpoint, restTemplateBuilder
+                    .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(aiHttpClient))
+                    .setReadTimeout(Duration.ofMillis(timeoutMs))
+                    .build());
+            // Created up front so every breaker shows on Actuator before its first call
+            circuitBreakers.put(endpoint, circuitBreakerRegistry.circuitBreaker(endpoint.key()));
+        }
+        this.bulkhead = bulkheadRegistry.bulkhead(BULKHEAD);
+    }
+
+    /** Read timeout of the endpoint's calls. */
+    public long getTimeoutMs(Endpoint endpoint) {
+        return timeouts.get(endpoint);
+    }
+
+    public <T> T post(Endpoint endpoint, Object body, Class<T> responseType) {
+        return call(endpoint, () -> restTemplates.get(endpoint)
+                .exchange(aiServiceUrl + endpoint.path, HttpMethod.POST, entity(body), responseType)
+                .getBody());
+    }
+
+    public <T> T post(Endpoint endpoint, Object body, ParameterizedTypeReference<T> responseType) {
+        return call(endpoint, () -> restTemplates.get(endpoint)
+                .exchange(aiServiceUrl + endpoint.path, HttpMethod.POST, entity(body), responseType)
+                .getBody());
+    }
+
+    private <T> T call(Endpoint endpoint, Supplier<T> request) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        try {
+            return Bulkhead.decorateSupplier(bulkhead,
+                    CircuitBreaker.decorateSupplier(circuitBreaker, request)).get();
+        } catch (CallNotPermittedException e) {
+            log.debug("AI {} call rejected: circuit breaker {}", endpoint, circuitBreaker.getState());
+            throw new ResourceAccessException("Circuit breaker " + endpoint.key() + " is open");
+        } catch (BulkheadFullException e) {
+            log.warn("AI {} call rejected: {} concurrent AI calls in flight", endpoint,
+                    bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+            throw new ResourceAccessException("Too many concurrent AI calls");
+        }
+    }
+
+    private static HttpEntity<Object> entity(Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+}
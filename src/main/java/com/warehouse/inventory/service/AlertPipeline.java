@@ -0,0 +1,157 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.entity.ProductStockTotal;
+import com.warehouse.inventory.enums.AlertSeverity;
+import com.warehouse.inventory.enums.AlertType;
+import com.warehouse.inventory.event.StockMovementsEvent;
+import com.warehouse.inventory.repository.AlertDraft;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Raises alerts for committed stock movements off the write path. Movements are queued after
+ * their transaction commits and a single worker drains the queue in batches: each batch is
+ * checked for anomalies in movement order, checked for low stock against the products'
+ * current totals in one query, and its alerts are written in one statement. A product that
+ * moves many times in a batch yields one low-stock alert carrying all those occurrences.
+ * A full queue drops the overflow rather than stall writers; the next movement of the same
+ * product re-raises its low-stock alert.
+ */
+@Slf4j
+@Component
+public class AlertPipeline {
+
+    private final AlertService alertService;
+    private final MovementAnomalyDetector movementAnomalyDetector;
+    private final ProductStockTotalRepository productStockTotalRepository;
+    private final BlockingQueue<StockMovementsEvent.Movement> pending;
+    private final ExecutorService worker;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Counter dropped;
+
+    @Value("${alert.pipeline.batch-size:500}")
+    private int batchSize;
+
+    public AlertPipeline(AlertService alertService,
+                         MovementAnomalyDetector movementAnomalyDetector,
+                         ProductStockTotalRepository productStockTotalRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${alert.pipeline.queue-capacity:20000}") int queueCapacity) {
+        this.alertService = alertService;
+        this.movementAnomalyDetector = movementAnomalyDetector;
+        this.productStockTotalRepository = productStockTotalRepository;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        // One worker keeps each product's movements in order for the anomaly baselines
+        this.worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("alert-pipeline-"));
+        Gauge.builder("alert.pipeline.pending", pending, BlockingQueue::size).register(meterRegistry);
+        this.dropped = Counter.builder("alert.pipeline.dropped").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockMoved(StockMovementsEvent event) {
+        int overflow = 0;
+        for (StockMovementsEvent.Movement movement : event.getMovements()) {
+            if (!pending.offer(movement)) {
+                overflow++;
+            }
+        }
+        if (overflow > 0) {
+            dropped.increment(overflow);
+            log.warn("Alert pipeline queue full, skipped {} movements", overflow);
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                worker.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                log.debug("Alert pipeline is shut down, {} movements left unchecked", pending.size());
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<StockMovementsEvent.Movement> batch = new ArrayList<>(batchSize);
+            while (pending.drainTo(batch, batchSize) > 0) {
+                try {
+                    process(batch);
+                } catch (RuntimeException e) {
+                    log.error("Failed to raise alerts for {} movements: {}", batch.size(), e.getMessage(), e);
+                }
+                batch.clear();
+            }
+        } finally {
+            scheduled.set(false);
+            // A movement queued after the last drain but before the flag cleared found it set
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void process(List<StockMovementsEvent.Movement> batch) {
+        List<AlertDraft> drafts = new ArrayList<>();
+        Map<Long, StockMovementsEvent.Movement> lastByProduct = new LinkedHashMap<>();
+        Map<Long, Integer> movesByProduct = new HashMap<>();
+        for (StockMovementsEvent.Movement movement : batch) {
+            movementAnomalyDetector.check(movement).ifPresent(drafts::add);
+            if (movement.getMinStockLevel() != null && movement.getWarehouseId() != null) {
+                lastByProduct.put(movement.getProductId(), movement);
+                movesByProduct.merge(movement.getProductId(), 1, Integer::sum);
+            }
+        }
+
+        if (!lastByProduct.isEmpty()) {
+            for (ProductStockTotal total : productStockTotalRepository.findByProductIdIn(lastByProduct.keySet())) {
+                if (Boolean.TRUE.equals(total.getLowStock())) {
+                    drafts.add(lowStock(lastByProduct.get(total.getProductId()), total.getTotalQuantity(),
+                            movesByProduct.get(total.getProductId())));
+                }
+            }
+        }
+        alertService.createAlerts(drafts);
+    }
+
+    private AlertDraft lowStock(StockMovementsEvent.Movement movement, int totalStock, int occurrences) {
+        AlertSeverity severity = totalStock == 0 ? AlertSeverity.CRITICAL : AlertSeverity.HIGH;
+        String message = String.format("Sản phẩm '%s' có tồn kho thấp: %d (tối thiểu: %d)",
+                movement.getProductName(), totalStock, movement.getMinStockLevel());
+        return new AlertDraft(movement.getProductId(), movement.getWarehouseId(), AlertType.LOW_STOCK,
+                message, severity, occurrences);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.shutdown();
+        if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Alert pipeline stopped with {} movements pending", pending.size());
+            worker.shutdownNow();
+        }
+    }
+}
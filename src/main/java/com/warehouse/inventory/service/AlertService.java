@@ -1,19 +1,24 @@
 package com.warehouse.inventory.service;
 
+import com.warehouse.inventory.dto.response.AlertResponse;
 import com.warehouse.inventory.entity.Alert;
 import com.warehouse.inventory.entity.Product;
 import com.warehouse.inventory.entity.Warehouse;
 import com.warehouse.inventory.enums.AlertSeverity;
 import com.warehouse.inventory.enums.AlertType;
+import com.warehouse.inventory.event.AlertChangedEvent;
 import com.warehouse.inventory.exception.ResourceNotFoundException;
+import com.warehouse.inventory.repository.AlertDraft;
 import com.warehouse.inventory.repository.AlertRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 @Slf4j
@@ -23,6 +28,7 @@ import java.util.List;
 public class AlertService {
 
     private final AlertRepository alertRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<Alert> findUnresolved() {
@@ -42,7 +48,9 @@ public class AlertService {
         alert.setResolved(true);
         alert.setResolvedBy(resolvedBy);
         alert.setResolvedAt(LocalDateTime.now());
-        return alertRepository.save(alert);
+        Alert saved = alertRepository.save(alert);
+        eventPublisher.publishEvent(new AlertChangedEvent(saved.getId(), true));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -50,25 +58,40 @@ public class AlertService {
         return alertRepository.countByResolvedFalse();
     }
 
-    public Alert createAlert(Product product, Warehouse warehouse, AlertType type,
-                              String message, AlertSeverity severity) {
-        log.info("Creating alert: type={}, product={}, severity={}", type,
-                product != null ? product.getName() : "N/A", severity);
-
-        Alert alert = Alert.builder()
-                .product(product)
-                .warehouse(warehouse)
-                .type(type)
-                .message(message)
-                .severity(severity)
-                .resolved(false)
-                .build();
+    /**
+     * Raises an alert, coalescing it into the open alert of the same product, warehouse and
+     * type if there is one. Returns true when a new alert was opened.
+     */
+    public boolean createAlert(Product product, Warehouse warehouse, AlertType type,
+                               String message, AlertSeverity severity) {
+        return createAlerts(Collections.singletonList(new AlertDraft(product != null ? product.getId() : null,
+                warehouse != null ? warehouse.getId() : null, type, message, severity, 1))) > 0;
+    }
 
-        return alertRepository.save(alert);
+    /**
+     * Raises the alerts in one statement per few hundred, coalescing each into the open
+     * alert of its product, warehouse and type. Only new alerts publish
+     * {@link AlertChangedEvent}, so a product that stays low through a picking wave costs a
+     * counter update and no dashboard rebuilds. Returns the number of alerts opened.
+     */
+    public int createAlerts(List<AlertDraft> drafts) {
+        if (drafts.isEmpty()) {
+            return 0;
+        }
+        List<Long> opened = alertRepository.openOrCoalesce(drafts);
+        opened.forEach(id -> eventPublisher.publishEvent(new AlertChangedEvent(id, false)));
+        log.info("Raised {} alerts: opened={}, coalesced={}", drafts.size(), opened.size(),
+                drafts.size() - opened.size());
+        return opened.size();
     }
 
     @Transactional(readOnly = true)
     public List<Alert> findRecent(int limit) {
         return alertRepository.findRecent(PageRequest.of(0, limit));
     }
+
+    @Transactional(readOnly = true)
+    public List<AlertResponse> findRecentResponses(int limit) {
+        return alertRepository.findRecentResponses(PageRequest.of(0, limit));
+    }
 }
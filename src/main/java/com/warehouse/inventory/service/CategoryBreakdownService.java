@@ -0,0 +1,48 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.repository.CategoryRepository;
+import com.warehouse.inventory.repository.projection.CategoryTotal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product counts and stock quantities per category, aggregated in the database.
+ * Shared by the dashboard and the category report.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class CategoryBreakdownService {
+
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * Totals per category, largest first.
+     *
+     * @param rollup when true, sub-category products are counted under their root category
+     */
+    public List<CategoryTotal> getBreakdown(boolean rollup) {
+        log.debug("Aggregating category breakdown, rollup={}", rollup);
+        return rollup
+                ? categoryRepository.sumActiveProductsByRootCategory()
+                : categoryRepository.sumActiveProductsByCategory();
+    }
+
+    /**
+     * Active product count per root category name, largest first.
+     */
+    public Map<String, Long> getRootProductCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (CategoryTotal total : categoryRepository.sumActiveProductsByRootCategory()) {
+            counts.merge(total.getCategoryName(), total.getProductCount(), Long::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,150 @@
+package com.warehouse.inventory.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent queries behind the dashboard concurrently. Each widget's query runs on
+ * a small bounded pool in its own read-only transaction, whose timeout also bounds its SQL
+ * statements; the pool is kept well under the connection pool. A widget that fails or
+ * outlives the part timeout is replaced by its fallback and reported as degraded, so one
+ * slow query costs its widget instead of the page. Per-widget time is recorded as the
+ * dashboard.widget timer, tagged by widget and outcome.
+ */
+@Slf4j
+@Component
+public class DashboardAggregator {
+
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final long partTimeoutMs;
+
+    public DashboardAggregator(PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${dashboard.aggregation.threads:4}") int threads,
+                               @Value("${dashboard.aggregation.part-timeout-ms:3000}") long partTimeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.partTimeoutMs = partTimeoutMs;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(partTimeoutMs + 999)));
+        // Past the queue the caller runs the part itself: slower, but never a dropped widget
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 8), new CustomizableThreadFactory("dashboard-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "dashboard.aggregation");
+    }
+
+    public Aggregation start() {
+        return new Aggregation();
+    }
+
+    /**
+     * One dashboard build: submit every widget first, then read them back.
+     */
+    public final class Aggregation {
+
+        private final List<String> degraded = Collections.synchronizedList(new ArrayList<>());
+
+        public <T> Part<T> submit(String widget, Supplier<T> query, T fallback) {
+            Part<T> part = new Part<>(widget, fallback, this);
+            part.future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    T value = readOnly.execute(status -> query.get());
+                    part.settle("success", start);
+                    return value;
+                } catch (RuntimeException e) {
+                    part.settle("failure", start);
+                    throw e;
+                }
+            });
+            return part;
+        }
+
+        /**
+         * Widgets served from their fallback so far, in the order they were read.
+         */
+        public List<String> getDegraded() {
+            return new ArrayList<>(degraded);
+        }
+    }
+
+    public final class Part<T> {
+
+        private final String widget;
+        private final T fallback;
+        private final Aggregation aggregation;
+        private final long submittedAt = System.nanoTime();
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private Future<T> future;
+
+        private Part(String widget, T fallback, Aggregation aggregation) {
+            this.widget = widget;
+            this.fallback = fallback;
+            this.aggregation = aggregation;
+        }
+
+        /**
+         * The widget's value, or its fallback if the query failed or is still running a part
+         * timeout after it was submitted.
+         */
+        public T get() {
+            long remaining = partTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt);
+            try {
+                return future.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                settle("timeout", submittedAt);
+                // No interrupt: the transaction timeout cancels the statement on the database
+                future.cancel(false);
+                log.warn("Dashboard widget {} timed out after {} ms", widget, partTimeoutMs);
+            } catch (ExecutionException e) {
+                log.warn("Dashboard widget {} failed: {}", widget, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                settle("timeout", submittedAt);
+            }
+            aggregation.degraded.add(widget);
+            return fallback;
+        }
+
+        // Records the widget's time once, by whichever of the query and the reader gets there first
+        private void settle(String outcome, long startNanos) {
+            if (settled.compareAndSet(false, true)) {
+                Timer.builder("dashboard.widget")
+                        .tag("widget", widget)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,92 +1,155 @@
 package com.warehouse.inventory.service;
 
 import com.warehouse.inventory.dto.response.DashboardResponse;
-import com.warehouse.inventory.entity.Alert;
-import com.warehouse.inventory.entity.Category;
-import com.warehouse.inventory.entity.Product;
-import com.warehouse.inventory.entity.StockMovement;
+import com.warehouse.inventory.entity.DashboardStat;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.RankingMetric;
+import com.warehouse.inventory.repository.DashboardStatRepository;
+import com.warehouse.inventory.repository.StockMovementRepository;
 import com.warehouse.inventory.repository.WarehouseStockRepository;
+import com.warehouse.inventory.repository.projection.MovementTypeTotal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
+/**
+ * Serves the dashboard from a precomputed snapshot kept in the {@value #CACHE} cache, so page
+ * views are answered from the near cache on every node. {@link DashboardSnapshotScheduler}
+ * replaces the snapshot in the background after stock, order and alert changes, and records
+ * one {@link DashboardStat} row per day for the trend chart. The widgets' queries run
+ * concurrently through {@link DashboardAggregator}.
+ */
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class DashboardService {
 
+    public static final String CACHE = "dashboardData";
+
     private final ProductService productService;
     private final CategoryService categoryService;
     private final WarehouseService warehouseService;
     private final AlertService alertService;
     private final PurchaseOrderService purchaseOrderService;
     private final StockMovementService stockMovementService;
+    private final CategoryBreakdownService categoryBreakdownService;
+    private final ProductRankingService productRankingService;
     private final WarehouseStockRepository warehouseStockRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final DashboardStatRepository dashboardStatRepository;
+    private final DashboardAggregator dashboardAggregator;
+
+    @Value("${dashboard.trend.days:30}")
+    private int trendDays;
 
+    @Cacheable(cacheNames = CACHE, key = "'snapshot'", unless = "#result.degraded")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public DashboardResponse getDashboardData() {
-        log.debug("Aggregating dashboard data");
+        return computeDashboardData();
+    }
 
-        long totalProducts = productService.count();
-        long totalCategories = categoryService.count();
-        long totalWarehouses = warehouseService.count();
+    /**
+     * A degraded build is returned but not cached, so it never replaces a complete snapshot;
+     * the scheduler retries on its next tick.
+     */
+    @CachePut(cacheNames = CACHE, key = "'snapshot'", unless = "#result.degraded")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DashboardResponse refreshSnapshot() {
+        long startedAt = System.nanoTime();
+        DashboardResponse data = computeDashboardData();
+        log.debug("Dashboard snapshot rebuilt in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+        if (data.isDegraded()) {
+            log.warn("Dashboard snapshot built without {}", data.getDegradedWidgets());
+        }
+        return data;
+    }
 
-        BigDecimal totalStockValue = warehouseStockRepository.getTotalStockValue();
-        if (totalStockValue == null) {
-            totalStockValue = BigDecimal.ZERO;
+    /**
+     * Persists today's counters into dashboard_stats, replacing any earlier row for today.
+     */
+    @Transactional
+    public void recordDailyStat() {
+        DashboardResponse data = computeDashboardData();
+        if (data.isDegraded()) {
+            // Fallback zeros would be recorded as real history
+            throw new IllegalStateException("Dashboard widgets unavailable: " + data.getDegradedWidgets());
+        }
+        LocalDate today = LocalDate.now();
+        long movementsToday = 0;
+        Map<MovementType, Long> quantities = new EnumMap<>(MovementType.class);
+        for (MovementTypeTotal total : stockMovementRepository.sumByTypeBetween(today.atStartOfDay(), LocalDateTime.now())) {
+            movementsToday += total.getMovementCount();
+            quantities.put(total.getType(), total.getTotalQuantity());
         }
 
-        long lowStockCount = productService.findLowStock().size();
-        long pendingOrders = purchaseOrderService.countPending();
-        long unresolvedAlerts = alertService.countUnresolved();
+        dashboardStatRepository.upsert(today, data.getTotalProducts(), data.getTotalStockValue(), movementsToday,
+                quantities.getOrDefault(MovementType.IN, 0L), quantities.getOrDefault(MovementType.OUT, 0L),
+                data.getLowStockCount(), data.getUnresolvedAlerts());
+        log.info("Recorded dashboard stat for {}", today);
+    }
 
-        List<Alert> recentAlertEntities = alertService.findRecent(10);
-        List<Object> recentAlerts = new ArrayList<>(recentAlertEntities);
+    private DashboardResponse computeDashboardData() {
+        log.debug("Aggregating dashboard data");
+        DashboardAggregator.Aggregation aggregation = dashboardAggregator.start();
 
-        List<StockMovement> recentMovementEntities = stockMovementService.findRecent();
-        List<Object> recentMovements = new ArrayList<>(
-                recentMovementEntities.size() > 10
-                        ? recentMovementEntities.subList(0, 10)
-                        : recentMovementEntities);
+        // Every widget is submitted before any is read, so the queries run side by side
+        DashboardAggregator.Part<Long> totalProducts = aggregation.submit("totalProducts", productService::count, 0L);
+        DashboardAggregator.Part<Long> totalCategories = aggregation.submit("totalCategories", categoryService::count, 0L);
+        DashboardAggregator.Part<Long> totalWarehouses = aggregation.submit("totalWarehouses", warehouseService::count, 0L);
+        DashboardAggregator.Part<BigDecimal> totalStockValue = aggregation.submit("totalStockValue",
+                warehouseStockRepository::getTotalStockValue, BigDecimal.ZERO);
+        DashboardAggregator.Part<Long> lowStockCount = aggregation.submit("lowStockCount",
+                productService::countLowStock, 0L);
+        DashboardAggregator.Part<Long> pendingOrders = aggregation.submit("pendingOrders", purchaseOrderService::countPending, 0L);
+        DashboardAggregator.Part<Long> unresolvedAlerts = aggregation.submit("unresolvedAlerts", alertService::countUnresolved, 0L);
 
-        // Category breakdown
-        List<Category> categories = categoryService.findAll();
-        List<Product> allProducts = productService.findAll();
-        Map<String, Long> categoryBreakdown = new LinkedHashMap<>();
-        for (Category cat : categories) {
-            long count = allProducts.stream()
-                    .filter(p -> p.getCategory() != null && p.getCategory().getId().equals(cat.getId()))
-                    .count();
-            if (count > 0) {
-                categoryBreakdown.put(cat.getName(), count);
-            }
-        }
+        // Snapshots outlive the session, so everything below is projected to DTOs up front
+        DashboardAggregator.Part<List<Object>> recentAlerts = aggregation.submit("recentAlerts",
+                () -> new ArrayList<>(alertService.findRecentResponses(10)), new ArrayList<>());
+        DashboardAggregator.Part<List<Object>> recentMovements = aggregation.submit("recentMovements",
+                () -> new ArrayList<>(stockMovementService.findPage(null, 10).getItems()), new ArrayList<>());
 
         // Top products by stock value
-        List<Object> topProducts = allProducts.stream()
-                .limit(10)
-                .collect(Collectors.toList());
+        DashboardAggregator.Part<List<Object>> topProducts = aggregation.submit("topProducts",
+                () -> new ArrayList<>(productRankingService.getTopProducts(RankingMetric.STOCK_VALUE, 10)), new ArrayList<>());
+        DashboardAggregator.Part<Map<String, Long>> categoryBreakdown = aggregation.submit("categoryBreakdown",
+                categoryBreakdownService::getRootProductCounts, new LinkedHashMap<>());
+        DashboardAggregator.Part<List<DashboardStat>> trend = aggregation.submit("trend",
+                () -> dashboardStatRepository.findByStatDateGreaterThanEqualOrderByStatDateAsc(
+                        LocalDate.now().minusDays(trendDays)), new ArrayList<>());
 
-        return DashboardResponse.builder()
-                .totalProducts(totalProducts)
-                .totalCategories(totalCategories)
-                .totalWarehouses(totalWarehouses)
-                .totalStockValue(totalStockValue)
-                .lowStockCount(lowStockCount)
-                .pendingOrders(pendingOrders)
-                .unresolvedAlerts(unresolvedAlerts)
-                .recentAlerts(recentAlerts)
-                .recentMovements(recentMovements)
-                .categoryBreakdown(categoryBreakdown)
-                .topProducts(topProducts)
+        DashboardResponse data = DashboardResponse.builder()
+                .totalProducts(totalProducts.get())
+                .totalCategories(totalCategories.get())
+                .totalWarehouses(totalWarehouses.get())
+                .totalStockValue(Objects.requireNonNullElse(totalStockValue.get(), BigDecimal.ZERO))
+                .lowStockCount(lowStockCount.get())
+                .pendingOrders(pendingOrders.get())
+                .unresolvedAlerts(unresolvedAlerts.get())
+                .recentAlerts(recentAlerts.get())
+                .recentMovements(recentMovements.get())
+                .categoryBreakdown(categoryBreakdown.get())
+                .topProducts(topProducts.get())
+                .trend(trend.get())
+                .generatedAt(LocalDateTime.now())
                 .build();
+        data.setDegradedWidgets(aggregation.getDegraded());
+        return data;
     }
 }
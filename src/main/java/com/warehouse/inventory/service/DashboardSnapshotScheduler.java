@@ -0,0 +1,79 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.event.AlertChangedEvent;
+import com.warehouse.inventory.event.PurchaseOrderChangedEvent;
+import com.warehouse.inventory.event.StockChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the dashboard snapshot fresh. Committed stock, order and alert changes only mark it
+ * dirty; the rebuild runs on the next tick, so a burst of writes costs one rebuild instead of
+ * one per write. Writing the new snapshot through the cache evicts the near copies on other
+ * nodes. Changes that publish no event (products, warehouses) are picked up by the max-age rule.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardSnapshotScheduler {
+
+    private final DashboardService dashboardService;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile long lastRefreshMillis;
+
+    @Value("${dashboard.snapshot.max-age-ms:60000}")
+    private long maxAgeMillis;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPurchaseOrderChanged(PurchaseOrderChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlertChanged(AlertChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.refresh-interval-ms:1000}")
+    public void refreshIfStale() {
+        boolean expired = System.currentTimeMillis() - lastRefreshMillis >= maxAgeMillis;
+        if (!dirty.getAndSet(false) && !expired) {
+            return;
+        }
+        try {
+            if (dashboardService.refreshSnapshot().isDegraded()) {
+                // The complete snapshot stays cached; try again on the next tick
+                dirty.set(true);
+            } else {
+                lastRefreshMillis = System.currentTimeMillis();
+            }
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            log.error("Failed to rebuild dashboard snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${dashboard.snapshot.daily-cron:0 55 23 * * *}")
+    public void recordDailyStat() {
+        try {
+            dashboardService.recordDailyStat();
+            // The new row belongs in the trend series
+            dirty.set(true);
+        } catch (RuntimeException e) {
+            log.error("Failed to record daily dashboard stat: {}", e.getMessage(), e);
+        }
+    }
+}
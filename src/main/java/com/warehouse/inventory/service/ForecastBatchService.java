@@ -0,0 +1,260 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.dto.request.ForecastBatchRequest;
+import com.warehouse.inventory.dto.response.ForecastBatchResponse;
+import com.warehouse.inventory.dto.response.ForecastResponse;
+import com.warehouse.inventory.util.DemandSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nightly forecast of the whole active catalog. Daily demand is read one keyset page of
+ * {@code chunkSize} products at a time, each page in its own short query, and posted to the
+ * AI service's batch endpoint with at most {@code parallelism} chunks in flight; the next page
+ * is only read once a slot is free, so memory stays bounded by the chunks in flight and no
+ * transaction spans the HTTP calls. Results go to ai_predictions with the movement version
+ * they were computed from, where getForecast and the reorder fallback pick them up.
+ */
+@Slf4j
+@Service
+public class ForecastBatchService {
+
+    // Session-level advisory lock that keeps the run to one node; released with the session
+    // if the node dies
+    static final long RUN_LOCK_KEY = 0x466f7265636173L;
+
+    // Products without movements in the window still get a (flat) forecast, so their forecast
+    // page is served from the store as well
+    private static final String DEMAND_PAGE_SQL = "SELECT p.id AS product_id, p.name AS product_name, " +
+            "COALESCE(t.movement_version, 0) AS movement_version, " +
+            "CAST(date_trunc('day', sm.created_at) AS date) AS day, " +
+            "SUM(CASE WHEN sm.type = 'IN' THEN sm.quantity ELSE 0 END) AS quantity_in, " +
+            "SUM(CASE WHEN sm.type = 'OUT' THEN sm.quantity ELSE 0 END) AS quantity_out " +
+            "FROM (SELECT id, name FROM products WHERE active = true AND id > ? ORDER BY id LIMIT ?) p " +
+            "LEFT JOIN product_stock_totals t ON t.product_id = p.id " +
+            "LEFT JOIN stock_movements sm ON sm.product_id = p.id AND sm.created_at >= ? " +
+            "AND sm.type IN ('IN', 'OUT') " +
+            "GROUP BY p.id, p.name, t.movement_version, date_trunc('day', sm.created_at) " +
+            "ORDER BY p.id, day";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final AiPredictionService aiPredictionService;
+    private final RestTemplate restTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong progress = new AtomicLong();
+    private final AtomicLong lastThroughput = new AtomicLong();
+    private final Counter forecasted;
+    private final Counter failed;
+    private final Timer chunkTimer;
+    private final Timer runTimer;
+
+    @Value("${ai.service.url:http://localhost:8000}")
+    private String aiServiceUrl;
+
+    @Value("${ai.forecast.batch.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${ai.forecast.batch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${ai.forecast.lookback-days:180}")
+    private int lookbackDays;
+
+    @Value("${ai.forecast.batch.days:30}")
+    private int forecastDays;
+
+    public ForecastBatchService(JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                AiPredictionService aiPredictionService,
+                                RestTemplateBuilder restTemplateBuilder,
+                                CloseableHttpClient aiHttpClient,
+                                MeterRegistry meterRegistry,
+                                @Value("${ai.forecast.batch.timeout-ms:60000}") long timeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.aiPredictionService = aiPredictionService;
+        // A chunk takes far longer than one interactive call, so it gets its own read timeout
+        // on the shared connection pool
+        this.restTemplate = restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(aiHttpClient))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        this.forecasted = Counter.builder("ai.forecast.batch.products")
+                .tag("outcome", "success").register(meterRegistry);
+        this.failed = Counter.builder("ai.forecast.batch.products")
+                .tag("outcome", "failed").register(meterRegistry);
+        this.chunkTimer = Timer.builder("ai.forecast.batch.chunk").register(meterRegistry);
+        this.runTimer = Timer.builder("ai.forecast.batch.run").register(meterRegistry);
+        meterRegistry.gauge("ai.forecast.batch.progress", progress);
+        meterRegistry.gauge("ai.forecast.batch.throughput", lastThroughput);
+    }
+
+    /**
+     * Forecasts every active product. A run already in progress, on this node or another one
+     * sharing the database, makes this a no-op. The advisory lock is held on a connection of
+     * its own for the whole run; the pages are read on other connections without a transaction.
+     */
+    @Scheduled(cron = "${ai.forecast.batch.cron:0 0 2 * * *}")
+    public void runBatch() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Forecast batch already running, skipping");
+            return;
+        }
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!advisoryLock(lockConnection, "pg_try_advisory_lock")) {
+                log.info("Forecast batch running on another node, skipping");
+                return;
+            }
+            try {
+                forecastAll();
+            } finally {
+                advisoryLock(lockConnection, "pg_advisory_unlock");
+            }
+        } catch (SQLException e) {
+            log.error("Forecast batch lock failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT " + function + "(?)")) {
+            ps.setLong(1, RUN_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void forecastAll() {
+        long start = System.nanoTime();
+        progress.set(0);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicInteger chunks = new AtomicInteger();
+        LocalDate today = LocalDate.now();
+        Timestamp since = Timestamp.valueOf(new DemandSeries(today, lookbackDays).getStart().atStartOfDay());
+        try {
+            long afterId = 0;
+            boolean more = true;
+            while (more) {
+                inFlight.acquire();
+                Chunk chunk = readChunk(afterId, since, today);
+                if (chunk.items.isEmpty()) {
+                    inFlight.release();
+                    break;
+                }
+                afterId = chunk.items.get(chunk.items.size() - 1).getProductId();
+                more = chunk.items.size() == chunkSize;
+                chunks.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        chunkTimer.record(() -> process(chunk));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            long elapsed = System.nanoTime() - start;
+            runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            long products = progress.get();
+            lastThroughput.set(products * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsed, 1));
+            log.info("Forecast batch finished: products={}, chunks={}, elapsed={}ms, throughput={}/s",
+                    products, chunks.get(), TimeUnit.NANOSECONDS.toMillis(elapsed), lastThroughput.get());
+        }
+    }
+
+    /**
+     * Reads the next {@code chunkSize} active products after {@code afterId} and folds their
+     * (product, day) rows, ordered by product, into one item per product.
+     */
+    private Chunk readChunk(long afterId, Timestamp since, LocalDate today) {
+        Chunk chunk = new Chunk();
+        jdbcTemplate.query(DEMAND_PAGE_SQL, (RowCallbackHandler) rs -> {
+            long productId = rs.getLong("product_id");
+            ForecastBatchRequest.Item item = chunk.items.isEmpty() ? null : chunk.items.get(chunk.items.size() - 1);
+            if (item == null || !item.getProductId().equals(productId)) {
+                item = ForecastBatchRequest.Item.builder()
+                        .productId(productId)
+                        .productName(rs.getString("product_name"))
+                        .historicalData(new DemandSeries(today, lookbackDays))
+                        .forecastDays(forecastDays)
+                        .build();
+                chunk.items.add(item);
+                chunk.versions.put(productId, rs.getLong("movement_version"));
+            }
+            Date day = rs.getDate("day");
+            if (day != null) {
+                item.getHistoricalData().add(day.toLocalDate(), rs.getInt("quantity_in"), rs.getInt("quantity_out"));
+            }
+        }, afterId, chunkSize, since);
+        return chunk;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void process(Chunk chunk) {
+        try {
+            ForecastBatchResponse response = restTemplate.postForObject(aiServiceUrl + "/api/ai/forecast/batch",
+                    ForecastBatchRequest.builder().items(chunk.items).build(), ForecastBatchResponse.class);
+            List<ForecastResponse> results = response != null && response.getResults() != null
+                    ? response.getResults() : new ArrayList<>();
+            aiPredictionService.saveForecasts(results, chunk.versions);
+            forecasted.increment(results.size());
+            failed.increment(chunk.items.size() - results.size());
+        } catch (RuntimeException e) {
+            failed.increment(chunk.items.size());
+            log.error("Forecast batch chunk of {} products failed: {}", chunk.items.size(), e.getMessage());
+        } finally {
+            progress.addAndGet(chunk.items.size());
+        }
+    }
+
+    private static class Chunk {
+        private final List<ForecastBatchRequest.Item> items = new ArrayList<>();
+        private final Map<Long, Long> versions = new HashMap<>();
+    }
+}
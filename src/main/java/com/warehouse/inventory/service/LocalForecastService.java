@@ -0,0 +1,170 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.dto.response.AnomalyResult;
+import com.warehouse.inventory.dto.response.ForecastResponse;
+import com.warehouse.inventory.repository.StockMovementRepository;
+import com.warehouse.inventory.repository.projection.ProductDailyMovementTotal;
+import com.warehouse.inventory.util.DemandSeries;
+import com.warehouse.inventory.util.ForecastModels;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forecasts and anomaly checks computed in this JVM with {@link ForecastModels}. Serves as
+ * the fallback when the AI service is unavailable, and as the fast path for series the AI
+ * service has nothing to learn from.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class LocalForecastService {
+
+    public static final String SOURCE = "LOCAL";
+
+    // Days at the end of the window checked for anomalies; the rest is the baseline
+    private static final int RECENT_DAYS = 7;
+    private static final double ZSCORE_THRESHOLD = 3.0;
+    private static final double HIGH_ZSCORE = 5.0;
+
+    private final StockMovementRepository stockMovementRepository;
+
+    /**
+     * Forecast of the series' outbound demand for the next {@code days} days.
+     */
+    public ForecastResponse forecast(Long productId, String productName, DemandSeries series, int days) {
+        double[] demand = series.demand();
+        ForecastModels.Result result = ForecastModels.forecast(demand, days);
+        double[] predicted = result.getPredictions();
+
+        LocalDate last = series.dayAt(series.length() - 1);
+        List<ForecastResponse.DayPrediction> predictions = new ArrayList<>(days);
+        for (int i = 0; i < predicted.length; i++) {
+            predictions.add(ForecastResponse.DayPrediction.builder()
+                    .date(last.plusDays(i + 1L).toString())
+                    .predictedDemand(Math.round(predicted[i] * 100) / 100.0)
+                    .build());
+        }
+
+        double mean = ForecastModels.mean(demand);
+        double confidence = mean > 0 ? Math.max(0, Math.min(1, 1 - result.getMeanAbsoluteError() / mean)) : 0;
+        log.debug("Local forecast for product {}: model={}, mae={}", productId, result.getModel(),
+                result.getMeanAbsoluteError());
+
+        return ForecastResponse.builder()
+                .productId(productId)
+                .productName(productName)
+                .predictions(predictions)
+                .confidence(Math.round(confidence * 1000) / 1000.0)
+                .recommendation(recommendation(demand, predicted))
+                .source(SOURCE)
+                .build();
+    }
+
+    /**
+     * Flags days in the last week whose outbound quantity is more than three standard
+     * deviations from the product's baseline over the rest of the window. Products with
+     * demand on fewer than a week's worth of baseline days are skipped.
+     */
+    public List<AnomalyResult> detectAnomalies(int windowDays) {
+        LocalDate today = LocalDate.now();
+        List<AnomalyResult> anomalies = new ArrayList<>();
+        Long productId = null;
+        String productName = null;
+        DemandSeries series = null;
+        for (ProductDailyMovementTotal total : stockMovementRepository.sumDailySince(
+                new DemandSeries(today, windowDays).getStart().atStartOfDay())) {
+            if (!total.getProductId().equals(productId)) {
+                if (series != null) {
+                    checkSeries(productId, productName, series, anomalies);
+                }
+                productId = total.getProductId();
+                productName = total.getProductName();
+                series = new DemandSeries(today, windowDays);
+            }
+            series.add(total.getDay(), total.getQuantityIn().intValue(), total.getQuantityOut().intValue());
+        }
+        if (series != null) {
+            checkSeries(productId, productName, series, anomalies);
+        }
+        return anomalies;
+    }
+
+    private static void checkSeries(Long productId, String productName, DemandSeries series,
+                                    List<AnomalyResult> anomalies) {
+        int baselineDays = series.length() - RECENT_DAYS;
+        if (baselineDays < 2 * RECENT_DAYS) {
+            return;
+        }
+        double[] demand = series.demand();
+        double sum = 0;
+        double sumSquares = 0;
+        int demandDays = 0;
+        for (int i = 0; i < baselineDays; i++) {
+            sum += demand[i];
+            sumSquares += demand[i] * demand[i];
+            if (demand[i] > 0) {
+                demandDays++;
+            }
+        }
+        // A product without a demand history has no normal to deviate from
+        if (demandDays < RECENT_DAYS) {
+            return;
+        }
+        double mean = sum / baselineDays;
+        // Floor the deviation so a flat baseline does not turn every change into an anomaly
+        double deviation = Math.max(Math.sqrt(Math.max(0, sumSquares / baselineDays - mean * mean)),
+                Math.sqrt(Math.max(mean, 1)));
+
+        for (int i = baselineDays; i < demand.length; i++) {
+            double z = (demand[i] - mean) / deviation;
+            if (Math.abs(z) < ZSCORE_THRESHOLD) {
+                continue;
+            }
+            boolean spike = z > 0;
+            anomalies.add(AnomalyResult.builder()
+                    .productId(productId)
+                    .productName(productName)
+                    .anomalyType(spike ? "spike" : "drop")
+                    .description(String.format("Xuất kho %d ngày %s, %s bất thường so với trung bình %.1f/ngày",
+                            (int) demand[i], series.dayAt(i), spike ? "cao" : "thấp", mean))
+                    .score(Math.min(1, Math.abs(z) / (2 * HIGH_ZSCORE)))
+                    .detectedAt(series.dayAt(i).toString())
+                    .severity(Math.abs(z) >= HIGH_ZSCORE ? "high" : "medium")
+                    .build());
+        }
+    }
+
+    // Compares the first forecast week with the last four weeks of history
+    private static String recommendation(double[] demand, double[] predicted) {
+        double recent = 0;
+        int recentDays = Math.min(4 * ForecastModels.WEEK, demand.length);
+        for (int i = demand.length - recentDays; i < demand.length; i++) {
+            recent += demand[i];
+        }
+        recent = recentDays == 0 ? 0 : recent / recentDays;
+        double upcoming = 0;
+        int upcomingDays = Math.min(ForecastModels.WEEK, predicted.length);
+        for (int i = 0; i < upcomingDays; i++) {
+            upcoming += predicted[i];
+        }
+        upcoming = upcomingDays == 0 ? 0 : upcoming / upcomingDays;
+
+        if (recent == 0 && upcoming == 0) {
+            return "Không có nhu cầu xuất kho gần đây, chưa cần đặt thêm hàng.";
+        }
+        if (upcoming > recent * 1.1) {
+            return "Nhu cầu đang tăng, nên tăng tồn kho dự phòng và xem xét đặt hàng sớm hơn để tránh thiếu hụt.";
+        }
+        if (upcoming < recent * 0.9) {
+            return "Nhu cầu giảm, có thể giảm đặt hàng để tránh tồn kho quá mức và tiết kiệm chi phí lưu kho.";
+        }
+        return "Nhu cầu ổn định, giữ mức tồn kho hiện tại và tiếp tục theo dõi xu hướng.";
+    }
+}
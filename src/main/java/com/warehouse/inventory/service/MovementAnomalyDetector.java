@@ -0,0 +1,148 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.enums.AlertSeverity;
+import com.warehouse.inventory.enums.AlertType;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.event.StockMovementsEvent;
+import com.warehouse.inventory.repository.AlertDraft;
+import com.warehouse.inventory.util.RollingStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flags IN and OUT movements whose quantity is far above what the product usually moves.
+ * Keeps one {@link RollingStats} per product and direction, so checking a movement is O(1)
+ * and an {@link AlertType#ANOMALY} alert follows the movement instead of waiting for someone
+ * to open the AI page. {@link AlertPipeline} feeds it committed movements in order and
+ * writes the alerts. The statistics are rebuilt from recent history once the application
+ * is up; until then movements only feed them. State is per node.
+ */
+@Slf4j
+@Component
+public class MovementAnomalyDetector {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String HISTORY_SQL = "SELECT product_id, type, quantity FROM stock_movements " +
+            "WHERE created_at >= ? AND type IN ('IN', 'OUT') ORDER BY created_at, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, RollingStats[]> stats = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Value("${anomaly.detector.enabled:true}")
+    private boolean enabled;
+
+    @Value("${anomaly.detector.history-days:90}")
+    private int historyDays;
+
+    @Value("${anomaly.detector.alpha:0.05}")
+    private double alpha;
+
+    @Value("${anomaly.detector.min-samples:10}")
+    private int minSamples;
+
+    @Value("${anomaly.detector.z-threshold:4.0}")
+    private double zThreshold;
+
+    // Deviation floor as a share of the mean, so a product that always moves the same
+    // quantity is not flagged for the first slightly larger movement
+    @Value("${anomaly.detector.min-deviation-ratio:0.5}")
+    private double minDeviationRatio;
+
+    public MovementAnomalyDetector(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Replays the last {@code history-days} of IN/OUT movements through a server-side cursor.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<Long, RollingStats[]> rebuilt = new ConcurrentHashMap<>();
+        int[] rows = new int[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(HISTORY_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusDays(historyDays)));
+            return ps;
+        }, rs -> {
+            RollingStats stat = statsOf(rebuilt, rs.getLong("product_id"), MovementType.valueOf(rs.getString("type")));
+            stat.add(rs.getInt("quantity"));
+            rows[0]++;
+        });
+        // Movements recorded while replaying went into the old map and are lost, which only
+        // shortens those products' history by a few samples
+        stats.clear();
+        stats.putAll(rebuilt);
+        ready = true;
+        log.info("Movement anomaly detector rebuilt: products={}, movements={}, elapsed={}ms",
+                rebuilt.size(), rows[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Checks the movement against its product's baseline, then adds it to the baseline.
+     * Returns the alert to raise when the movement is an outlier.
+     */
+    public Optional<AlertDraft> check(StockMovementsEvent.Movement movement) {
+        if (!enabled || (movement.getType() != MovementType.IN && movement.getType() != MovementType.OUT)) {
+            return Optional.empty();
+        }
+        RollingStats stat = statsOf(stats, movement.getProductId(), movement.getType());
+        double quantity = movement.getQuantity();
+        double mean;
+        double deviation;
+        long count;
+        synchronized (stat) {
+            count = stat.getCount();
+            mean = stat.getMean();
+            deviation = Math.max(stat.getStandardDeviation(), Math.max(mean * minDeviationRatio, 1));
+            stat.add(quantity);
+        }
+        if (!ready || count < minSamples) {
+            return Optional.empty();
+        }
+        double z = (quantity - mean) / deviation;
+        if (z < zThreshold) {
+            return Optional.empty();
+        }
+        log.warn("Anomalous {} movement for product {}: quantity={}, mean={}, z={}",
+                movement.getType(), movement.getProductId(), movement.getQuantity(),
+                String.format("%.1f", mean), String.format("%.1f", z));
+        String message = String.format("Phiếu %s bất thường cho sản phẩm '%s': số lượng %d so với trung bình %.1f",
+                movement.getType() == MovementType.IN ? "nhập kho" : "xuất kho",
+                movement.getProductName(), movement.getQuantity(), mean);
+        AlertSeverity severity = z >= 2 * zThreshold ? AlertSeverity.HIGH : AlertSeverity.MEDIUM;
+        return Optional.of(new AlertDraft(movement.getProductId(), movement.getWarehouseId(),
+                AlertType.ANOMALY, message, severity, 1));
+    }
+
+    /**
+     * Movement stats of one product: index 0 for IN, 1 for OUT.
+     */
+    private RollingStats statsOf(Map<Long, RollingStats[]> map, Long productId, MovementType type) {
+        RollingStats[] pair = map.computeIfAbsent(productId,
+                id -> new RollingStats[]{new RollingStats(alpha), new RollingStats(alpha)});
+        return pair[type == MovementType.IN ? 0 : 1];
+    }
+}
@@ -0,0 +1,80 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.dto.response.ProductRankingResponse;
+import com.warehouse.inventory.enums.RankingMetric;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.projection.ProductRanking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Top-K product rankings used by the dashboard and the reports. Each ranking is a single
+ * ORDER BY ... LIMIT query over the maintained stock totals.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class ProductRankingService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private final ProductRepository productRepository;
+
+    @Value("${product.ranking.velocity-days:30}")
+    private int defaultVelocityDays;
+
+    public List<ProductRankingResponse> getTopProducts(RankingMetric metric, Integer limit) {
+        return getTopProducts(metric, limit, null);
+    }
+
+    /**
+     * @param limit number of products, clamped to {@link #MAX_LIMIT}; defaults to {@link #DEFAULT_LIMIT}
+     * @param days  window for {@link RankingMetric#VELOCITY}; ignored by the stock metrics
+     */
+    public List<ProductRankingResponse> getTopProducts(RankingMetric metric, Integer limit, Integer days) {
+        int k = limit == null || limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        log.debug("Ranking top {} products by {}", k, metric);
+
+        List<ProductRanking> rows;
+        switch (metric) {
+            case STOCK_VALUE:
+                rows = productRepository.findTopByStockValue(k);
+                break;
+            case COST_VALUE:
+                rows = productRepository.findTopByCostValue(k);
+                break;
+            case MARGIN:
+                rows = productRepository.findTopByMargin(k);
+                break;
+            case VELOCITY:
+                int window = days == null || days < 1 ? defaultVelocityDays : days;
+                rows = productRepository.findTopByVelocity(LocalDateTime.now().minusDays(window), k);
+                break;
+            default:
+                throw new IllegalArgumentException("Tiêu chí xếp hạng không hợp lệ: " + metric);
+        }
+        return rows.stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
+    private ProductRankingResponse toResponse(ProductRanking row) {
+        return ProductRankingResponse.builder()
+                .productId(row.getProductId())
+                .sku(row.getSku())
+                .name(row.getName())
+                .categoryName(row.getCategoryName())
+                .totalQuantity(row.getTotalQuantity())
+                .unitPrice(row.getUnitPrice())
+                .costPrice(row.getCostPrice())
+                .score(row.getScore())
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.warehouse.inventory.service;
 
 import com.warehouse.inventory.dto.request.ProductRequest;
+import com.warehouse.inventory.dto.response.CursorPage;
 import com.warehouse.inventory.dto.response.ProductResponse;
 import com.warehouse.inventory.entity.Category;
 import com.warehouse.inventory.entity.Product;
@@ -8,16 +9,17 @@ import com.warehouse.inventory.entity.Supplier;
 import com.warehouse.inventory.exception.ResourceNotFoundException;
 import com.warehouse.inventory.repository.CategoryRepository;
 import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
 import com.warehouse.inventory.repository.SupplierRepository;
-import com.warehouse.inventory.repository.WarehouseStockRepository;
+import com.warehouse.inventory.util.PageCursor;
 import com.warehouse.inventory.util.SkuGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,7 +30,7 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final SupplierRepository supplierRepository;
-    private final WarehouseStockRepository warehouseStockRepository;
+    private final ProductStockTotalRepository productStockTotalRepository;
 
     @Transactional(readOnly = true)
     public List<Product> findAll() {
@@ -123,14 +125,18 @@ public class ProductService {
         product.setReorderPoint(request.getReorderPoint());
         product.setImageUrl(request.getImageUrl());
 
-        return productRepository.save(product);
+        // The minimum may have moved past the current total
+        Product saved = productRepository.saveAndFlush(product);
+        productStockTotalRepository.refreshLowStock(id);
+        return saved;
     }
 
     public void delete(Long id) {
         log.info("Soft deleting product with id: {}", id);
         Product product = findById(id);
         product.setActive(false);
-        productRepository.save(product);
+        productRepository.saveAndFlush(product);
+        productStockTotalRepository.refreshLowStock(id);
     }
 
     @Transactional(readOnly = true)
@@ -139,6 +145,11 @@ public class ProductService {
         return productRepository.findLowStockProducts();
     }
 
+    @Transactional(readOnly = true)
+    public long countLowStock() {
+        return productStockTotalRepository.countLowStock();
+    }
+
     @Transactional(readOnly = true)
     public List<Product> findOverStock() {
         log.debug("Finding over stock products");
@@ -152,7 +163,7 @@ public class ProductService {
 
     @Transactional(readOnly = true)
     public ProductResponse toResponse(Product product) {
-        Integer totalStock = warehouseStockRepository.getTotalStockByProductId(product.getId());
+        Integer totalStock = productStockTotalRepository.findTotalQuantity(product.getId()).orElse(0);
 
         return ProductResponse.builder()
                 .id(product.getId())
@@ -179,8 +190,24 @@ public class ProductService {
 
     @Transactional(readOnly = true)
     public List<ProductResponse> findAllAsResponse() {
-        return findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return productRepository.findActiveResponses();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> findPageAsResponse(String cursor, Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        long afterId = cursor != null ? PageCursor.decodeId(cursor).getId() : 0L;
+        List<ProductResponse> rows = productRepository.findActiveResponsesAfter(afterId,
+                PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, p -> PageCursor.of(p.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchAsResponse(String keyword) {
+        log.debug("Searching product responses with keyword: {}", keyword);
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return findAllAsResponse();
+        }
+        return productRepository.searchResponses(keyword.trim());
     }
 }
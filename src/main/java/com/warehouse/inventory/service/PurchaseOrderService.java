@@ -2,17 +2,23 @@ package com.warehouse.inventory.service;
 
 import com.warehouse.inventory.dto.request.PurchaseOrderItemRequest;
 import com.warehouse.inventory.dto.request.PurchaseOrderRequest;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.PurchaseOrderResponse;
 import com.warehouse.inventory.entity.Product;
 import com.warehouse.inventory.entity.PurchaseOrder;
 import com.warehouse.inventory.entity.PurchaseOrderItem;
 import com.warehouse.inventory.entity.Supplier;
 import com.warehouse.inventory.enums.OrderStatus;
+import com.warehouse.inventory.event.PurchaseOrderChangedEvent;
 import com.warehouse.inventory.exception.ResourceNotFoundException;
 import com.warehouse.inventory.repository.ProductRepository;
 import com.warehouse.inventory.repository.PurchaseOrderRepository;
 import com.warehouse.inventory.repository.SupplierRepository;
+import com.warehouse.inventory.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +38,7 @@ public class PurchaseOrderService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final SupplierRepository supplierRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final AtomicLong ORDER_SEQUENCE = new AtomicLong(1);
 
@@ -75,12 +82,21 @@ public class PurchaseOrderService {
         order.setTotalAmount(totalAmount);
         PurchaseOrder saved = purchaseOrderRepository.save(order);
         log.info("Purchase order created: {}", saved.getOrderNumber());
-        return saved;
+        return published(saved);
     }
 
     @Transactional(readOnly = true)
-    public List<PurchaseOrder> findAll() {
-        return purchaseOrderRepository.findAllByOrderByCreatedAtDesc();
+    public CursorPage<PurchaseOrderResponse> findPage(String cursor, Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<PurchaseOrderResponse> rows;
+        if (cursor == null) {
+            rows = purchaseOrderRepository.findFirstPage(limit);
+        } else {
+            PageCursor position = PageCursor.decodeTimestamped(cursor);
+            rows = purchaseOrderRepository.findPageBefore(position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(rows, pageSize, o -> PageCursor.of(o.getOrderDate(), o.getId()).encode());
     }
 
     @Transactional(readOnly = true)
@@ -99,7 +115,7 @@ public class PurchaseOrderService {
 
         order.setStatus(OrderStatus.APPROVED);
         order.setApprovedAt(LocalDateTime.now());
-        return purchaseOrderRepository.save(order);
+        return published(purchaseOrderRepository.save(order));
     }
 
     public PurchaseOrder receive(Long id, Map<Long, Integer> receivedQuantities) {
@@ -119,7 +135,7 @@ public class PurchaseOrderService {
 
         order.setStatus(OrderStatus.RECEIVED);
         order.setReceivedAt(LocalDateTime.now());
-        return purchaseOrderRepository.save(order);
+        return published(purchaseOrderRepository.save(order));
     }
 
     public PurchaseOrder cancel(Long id) {
@@ -131,7 +147,12 @@ public class PurchaseOrderService {
         }
 
         order.setStatus(OrderStatus.CANCELLED);
-        return purchaseOrderRepository.save(order);
+        return published(purchaseOrderRepository.save(order));
+    }
+
+    private PurchaseOrder published(PurchaseOrder order) {
+        eventPublisher.publishEvent(new PurchaseOrderChangedEvent(order.getId(), order.getStatus()));
+        return order;
     }
 
     public String generateOrderNumber() {
@@ -0,0 +1,176 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.dto.response.StockSummaryResponse;
+import com.warehouse.inventory.enums.ExportFormat;
+import com.warehouse.inventory.util.ReportWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Streams report rows from a server-side JDBC cursor straight into CSV/XLSX writers, so an
+ * export never holds more than one fetch batch of rows in memory. The read-only transaction
+ * matters: the PostgreSQL driver only honours the fetch size with auto-commit off.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class ReportExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String STOCK_SQL = "SELECT w.name AS warehouse_name, p.sku, p.name AS product_name, " +
+            "ws.quantity, p.min_stock_level, p.max_stock_level " +
+            "FROM warehouse_stock ws " +
+            "JOIN products p ON p.id = ws.product_id " +
+            "JOIN warehouses w ON w.id = ws.warehouse_id ";
+
+    private static final String MOVEMENT_SQL = "SELECT sm.id, sm.created_at, sm.type, p.sku, p.name AS product_name, " +
+            "fw.name AS from_warehouse, tw.name AS to_warehouse, sm.quantity, sm.reason, sm.reference, sm.performed_by " +
+            "FROM stock_movements sm " +
+            "JOIN products p ON p.id = sm.product_id " +
+            "LEFT JOIN warehouses fw ON fw.id = sm.from_warehouse_id " +
+            "LEFT JOIN warehouses tw ON tw.id = sm.to_warehouse_id " +
+            "WHERE sm.created_at BETWEEN ? AND ? " +
+            "ORDER BY sm.created_at, sm.id";
+
+    private static final String MOVEMENT_COUNT_SQL =
+            "SELECT COUNT(*) FROM stock_movements sm WHERE sm.created_at BETWEEN ? AND ?";
+
+    private static final String SUPPLIER_SQL = "SELECT s.name, s.contact_person, s.email, s.phone, s.rating, " +
+            "COUNT(po.id) AS total_orders, COALESCE(SUM(po.total_amount), 0) AS total_amount " +
+            "FROM suppliers s LEFT JOIN purchase_orders po ON po.supplier_id = s.id " +
+            "WHERE s.active = true " +
+            "GROUP BY s.id, s.name, s.contact_person, s.email, s.phone, s.rating " +
+            "ORDER BY s.name";
+
+    private static final String SUPPLIER_COUNT_SQL = "SELECT COUNT(*) FROM suppliers s WHERE s.active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void exportStock(Long warehouseId, ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting stock report: warehouseId={}, format={}", warehouseId, format);
+        String sql = STOCK_SQL + stockFilter(warehouseId) + "ORDER BY ws.id";
+
+        export(ReportWriter.create(format, out, "Tồn kho"),
+                new Object[]{"Kho", "SKU", "Sản phẩm", "Số lượng", "Tối thiểu", "Tối đa", "Trạng thái"},
+                sql, stockParams(warehouseId), rs -> {
+                    int quantity = rs.getInt("quantity");
+                    Integer minLevel = (Integer) rs.getObject("min_stock_level");
+                    Integer maxLevel = (Integer) rs.getObject("max_stock_level");
+                    return new Object[]{rs.getString("warehouse_name"), rs.getString("sku"),
+                            rs.getString("product_name"), quantity, minLevel, maxLevel,
+                            StockSummaryResponse.calculateStatus(quantity, minLevel, maxLevel)};
+                });
+    }
+
+    public void exportMovements(LocalDateTime start, LocalDateTime end, ExportFormat format, OutputStream out)
+            throws IOException {
+        log.info("Exporting movement report: {} - {}, format={}", start, end, format);
+
+        export(ReportWriter.create(format, out, "Xuất nhập kho"),
+                new Object[]{"Mã phiếu", "Thời gian", "Loại", "SKU", "Sản phẩm", "Từ kho", "Đến kho",
+                        "Số lượng", "Lý do", "Tham chiếu", "Người thực hiện"},
+                MOVEMENT_SQL, movementParams(start, end), rs -> new Object[]{
+                        rs.getLong("id"), rs.getTimestamp("created_at").toLocalDateTime().toString(),
+                        rs.getString("type"), rs.getString("sku"), rs.getString("product_name"),
+                        rs.getString("from_warehouse"), rs.getString("to_warehouse"), rs.getInt("quantity"),
+                        rs.getString("reason"), rs.getString("reference"), rs.getString("performed_by")});
+    }
+
+    public void exportSuppliers(ExportFormat format, OutputStream out) throws IOException {
+        log.info("Exporting supplier report: format={}", format);
+
+        export(ReportWriter.create(format, out, "Nhà cung cấp"),
+                new Object[]{"Nhà cung cấp", "Người liên hệ", "Email", "Điện thoại", "Đánh giá",
+                        "Số đơn hàng", "Tổng giá trị"},
+                SUPPLIER_SQL, new Object[0], rs -> new Object[]{
+                        rs.getString("name"), rs.getString("contact_person"), rs.getString("email"),
+                        rs.getString("phone"), rs.getObject("rating"), rs.getLong("total_orders"),
+                        rs.getBigDecimal("total_amount")});
+    }
+
+    // Row counts let the controller turn down an XLSX export before the response starts
+    public long countStock(Long warehouseId) {
+        return count("SELECT COUNT(*) FROM warehouse_stock ws " + stockFilter(warehouseId), stockParams(warehouseId));
+    }
+
+    public long countMovements(LocalDateTime start, LocalDateTime end) {
+        return count(MOVEMENT_COUNT_SQL, movementParams(start, end));
+    }
+
+    public long countSuppliers() {
+        return count(SUPPLIER_COUNT_SQL, new Object[0]);
+    }
+
+    private long count(String sql, Object[] params) {
+        Long rows = jdbcTemplate.queryForObject(sql, Long.class, params);
+        return rows != null ? rows : 0L;
+    }
+
+    private static String stockFilter(Long warehouseId) {
+        return warehouseId != null ? "WHERE ws.warehouse_id = ? " : "";
+    }
+
+    private static Object[] stockParams(Long warehouseId) {
+        return warehouseId != null ? new Object[]{warehouseId} : new Object[0];
+    }
+
+    private static Object[] movementParams(LocalDateTime start, LocalDateTime end) {
+        return new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end)};
+    }
+
+    private void export(ReportWriter writer, Object[] header, String sql, Object[] params, RowMapper mapper)
+            throws IOException {
+        try {
+            writer.writeRow(header);
+            stream(sql, params, writer, mapper);
+        } catch (IOException | RuntimeException e) {
+            // Closing would finish the file and make the rows written so far look like the whole report
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+    }
+
+    private void stream(String sql, Object[] params, ReportWriter writer, RowMapper mapper) throws IOException {
+        RowCallbackHandler handler = rs -> {
+            try {
+                writer.writeRow(mapper.map(rs));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < params.length; i++) {
+                    ps.setObject(i + 1, params[i]);
+                }
+                return ps;
+            }, handler);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowMapper {
+        Object[] map(ResultSet rs) throws SQLException;
+    }
+}
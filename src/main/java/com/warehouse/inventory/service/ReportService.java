@@ -1,19 +1,25 @@
 package com.warehouse.inventory.service;
 
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.StockMovementResponse;
 import com.warehouse.inventory.dto.response.StockSummaryResponse;
-import com.warehouse.inventory.entity.StockMovement;
 import com.warehouse.inventory.entity.Supplier;
 import com.warehouse.inventory.entity.WarehouseStock;
+import com.warehouse.inventory.enums.MovementType;
 import com.warehouse.inventory.repository.PurchaseOrderRepository;
 import com.warehouse.inventory.repository.StockMovementRepository;
 import com.warehouse.inventory.repository.SupplierRepository;
 import com.warehouse.inventory.repository.WarehouseStockRepository;
+import com.warehouse.inventory.repository.projection.MovementTypeTotal;
+import com.warehouse.inventory.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,70 +37,79 @@ public class ReportService {
     private final PurchaseOrderRepository purchaseOrderRepository;
 
     /**
-     * Get stock report for a specific warehouse.
-     * Returns list of stock summary for all products in the warehouse.
+     * Get one page of the stock report, optionally for a single warehouse.
+     * Pages are keyed on the stock row id, or on product id within a warehouse.
      */
-    public List<StockSummaryResponse> getStockReport(Long warehouseId) {
-        log.debug("Generating stock report for warehouse: {}", warehouseId);
+    public CursorPage<StockSummaryResponse> getStockReport(Long warehouseId, String cursor, Integer size) {
+        log.debug("Generating stock report for warehouse: {}, cursor={}", warehouseId, cursor);
+
+        int pageSize = CursorPage.sizeOf(size);
+        long after = cursor != null ? PageCursor.decodeId(cursor).getId() : 0L;
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
 
-        List<WarehouseStock> stocks;
         if (warehouseId != null) {
-            stocks = warehouseStockRepository.findByWarehouseId(warehouseId);
-        } else {
-            stocks = warehouseStockRepository.findAll();
+            List<WarehouseStock> stocks = warehouseStockRepository.findWarehousePageAfter(warehouseId, after, limit);
+            return CursorPage.of(stocks, pageSize,
+                    stock -> PageCursor.of(stock.getProduct().getId()).encode(), this::toSummary);
         }
+        List<WarehouseStock> stocks = warehouseStockRepository.findPageAfter(after, limit);
+        return CursorPage.of(stocks, pageSize, stock -> PageCursor.of(stock.getId()).encode(), this::toSummary);
+    }
 
-        return stocks.stream()
-                .map(stock -> {
-                    Integer minLevel = stock.getProduct().getMinStockLevel();
-                    Integer maxLevel = stock.getProduct().getMaxStockLevel();
-                    String status = StockSummaryResponse.calculateStatus(
-                            stock.getQuantity(), minLevel, maxLevel);
-
-                    return StockSummaryResponse.builder()
-                            .warehouseId(stock.getWarehouse().getId())
-                            .warehouseName(stock.getWarehouse().getName())
-                            .productId(stock.getProduct().getId())
-                            .productName(stock.getProduct().getName())
-                            .quantity(stock.getQuantity())
-                            .minLevel(minLevel)
-                            .maxLevel(maxLevel)
-                            .status(status)
-                            .build();
-                })
-                .collect(Collectors.toList());
+    private StockSummaryResponse toSummary(WarehouseStock stock) {
+        Integer minLevel = stock.getProduct().getMinStockLevel();
+        Integer maxLevel = stock.getProduct().getMaxStockLevel();
+        String status = StockSummaryResponse.calculateStatus(
+                stock.getQuantity(), minLevel, maxLevel);
+
+        return StockSummaryResponse.builder()
+                .warehouseId(stock.getWarehouse().getId())
+                .warehouseName(stock.getWarehouse().getName())
+                .productId(stock.getProduct().getId())
+                .productName(stock.getProduct().getName())
+                .quantity(stock.getQuantity())
+                .minLevel(minLevel)
+                .maxLevel(maxLevel)
+                .status(status)
+                .build();
     }
 
     /**
      * Get movement report between two dates.
-     * Returns list of stock movements with summary statistics.
+     * Totals per type come from one GROUP BY query; detail rows are one keyset page
+     * of the range, newest first.
      */
-    public Map<String, Object> getMovementReport(LocalDateTime start, LocalDateTime end) {
-        log.debug("Generating movement report from {} to {}", start, end);
-
-        List<StockMovement> movements = stockMovementRepository
-                .findByCreatedAtBetweenOrderByCreatedAtDesc(start, end);
-
-        long totalIn = movements.stream()
-                .filter(m -> m.getType() == com.warehouse.inventory.enums.MovementType.IN)
-                .count();
-        long totalOut = movements.stream()
-                .filter(m -> m.getType() == com.warehouse.inventory.enums.MovementType.OUT)
-                .count();
-        long totalTransfer = movements.stream()
-                .filter(m -> m.getType() == com.warehouse.inventory.enums.MovementType.TRANSFER)
-                .count();
-        long totalAdjustment = movements.stream()
-                .filter(m -> m.getType() == com.warehouse.inventory.enums.MovementType.ADJUSTMENT)
-                .count();
+    public Map<String, Object> getMovementReport(LocalDateTime start, LocalDateTime end, String cursor, Integer size) {
+        log.debug("Generating movement report from {} to {}, cursor={}", start, end, cursor);
+
+        Map<MovementType, Long> counts = new EnumMap<>(MovementType.class);
+        Map<MovementType, Long> quantities = new EnumMap<>(MovementType.class);
+        for (MovementTypeTotal total : stockMovementRepository.sumByTypeBetween(start, end)) {
+            counts.put(total.getType(), total.getMovementCount());
+            quantities.put(total.getType(), total.getTotalQuantity());
+        }
+
+        int pageSize = CursorPage.sizeOf(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<StockMovementResponse> rows;
+        if (cursor == null) {
+            rows = stockMovementRepository.findRangeFirstPage(start, end, limit);
+        } else {
+            PageCursor position = PageCursor.decodeTimestamped(cursor);
+            rows = stockMovementRepository.findRangePageBefore(start, position.getCreatedAt(), position.getId(), limit);
+        }
+        CursorPage<StockMovementResponse> page = CursorPage.of(rows, pageSize,
+                m -> PageCursor.of(m.getCreatedAt(), m.getId()).encode());
 
         Map<String, Object> report = new HashMap<>();
-        report.put("movements", movements);
-        report.put("totalMovements", movements.size());
-        report.put("totalIn", totalIn);
-        report.put("totalOut", totalOut);
-        report.put("totalTransfer", totalTransfer);
-        report.put("totalAdjustment", totalAdjustment);
+        report.put("movements", page.getItems());
+        report.put("page", page);
+        report.put("totalMovements", counts.values().stream().mapToLong(Long::longValue).sum());
+        report.put("totalIn", counts.getOrDefault(MovementType.IN, 0L));
+        report.put("totalOut", counts.getOrDefault(MovementType.OUT, 0L));
+        report.put("totalTransfer", counts.getOrDefault(MovementType.TRANSFER, 0L));
+        report.put("totalAdjustment", counts.getOrDefault(MovementType.ADJUSTMENT, 0L));
+        report.put("quantityByType", quantities);
         report.put("startDate", start);
         report.put("endDate", end);
 
@@ -1,27 +1,50 @@
 package com.warehouse.inventory.service;
 
 import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.StockMovementBatchResponse;
+import com.warehouse.inventory.dto.response.StockMovementResponse;
 import com.warehouse.inventory.entity.Product;
 import com.warehouse.inventory.entity.StockMovement;
 import com.warehouse.inventory.entity.Warehouse;
-import com.warehouse.inventory.entity.WarehouseStock;
-import com.warehouse.inventory.enums.AlertSeverity;
-import com.warehouse.inventory.enums.AlertType;
 import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.event.StockChangedEvent;
+import com.warehouse.inventory.event.StockMovementsEvent;
 import com.warehouse.inventory.exception.InsufficientStockException;
 import com.warehouse.inventory.exception.ResourceNotFoundException;
+import com.warehouse.inventory.repository.LockedStock;
 import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.StockKey;
 import com.warehouse.inventory.repository.StockMovementRepository;
 import com.warehouse.inventory.repository.WarehouseRepository;
 import com.warehouse.inventory.repository.WarehouseStockRepository;
+import com.warehouse.inventory.repository.projection.DailyMovementTotal;
+import com.warehouse.inventory.repository.projection.StockLevel;
+import com.warehouse.inventory.util.DemandSeries;
+import com.warehouse.inventory.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -33,7 +56,10 @@ public class StockMovementService {
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
     private final WarehouseStockRepository warehouseStockRepository;
-    private final AlertService alertService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${stock.batch.max-size:5000}")
+    private int maxBatchSize;
 
     public StockMovement processMovement(StockMovementRequest request) {
         log.info("Processing stock movement: type={}, productId={}, quantity={}",
@@ -42,30 +68,29 @@ public class StockMovementService {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Sản phẩm", request.getProductId()));
 
-        Warehouse fromWarehouse = null;
-        Warehouse toWarehouse = null;
-
-        if (request.getFromWarehouseId() != null) {
-            fromWarehouse = warehouseRepository.findById(request.getFromWarehouseId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Kho hàng", request.getFromWarehouseId()));
-        }
-        if (request.getToWarehouseId() != null) {
-            toWarehouse = warehouseRepository.findById(request.getToWarehouseId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Kho hàng", request.getToWarehouseId()));
-        }
-
+        // Only the warehouses the type uses are recorded. They are only needed as foreign keys and
+        // the stock statements below verify they exist; an id the type ignores is dropped, as its
+        // foreign key would only fail on the movement insert.
+        Long fromWarehouseId = request.getFromWarehouseId();
+        Long toWarehouseId = request.getToWarehouseId();
         switch (request.getType()) {
             case IN:
-                processStockIn(product, toWarehouse, request.getQuantity());
+                processStockIn(product, toWarehouseId, request.getQuantity());
+                fromWarehouseId = null;
                 break;
             case OUT:
-                processStockOut(product, fromWarehouse, request.getQuantity());
+                processStockOut(product, fromWarehouseId, request.getQuantity());
+                toWarehouseId = null;
                 break;
             case TRANSFER:
-                processTransfer(product, fromWarehouse, toWarehouse, request.getQuantity());
+                processTransfer(product, fromWarehouseId, toWarehouseId, request.getQuantity());
                 break;
             case ADJUSTMENT:
-                processAdjustment(product, toWarehouse != null ? toWarehouse : fromWarehouse, request.getQuantity());
+                if (toWarehouseId != null) {
+                    fromWarehouseId = null;
+                }
+                processAdjustment(product, toWarehouseId != null ? toWarehouseId : fromWarehouseId,
+                        request.getQuantity());
                 break;
             default:
                 throw new IllegalArgumentException("Loại phiếu không hợp lệ: " + request.getType());
@@ -73,8 +98,8 @@ public class StockMovementService {
 
         StockMovement movement = StockMovement.builder()
                 .product(product)
-                .fromWarehouse(fromWarehouse)
-                .toWarehouse(toWarehouse)
+                .fromWarehouse(warehouseReference(fromWarehouseId))
+                .toWarehouse(warehouseReference(toWarehouseId))
                 .quantity(request.getQuantity())
                 .type(request.getType())
                 .reason(request.getReason())
@@ -84,110 +109,370 @@ public class StockMovementService {
         StockMovement saved = stockMovementRepository.save(movement);
         log.info("Stock movement processed successfully: id={}", saved.getId());
 
-        // Check stock levels and create alerts if necessary
-        checkAndCreateAlerts(product, toWarehouse != null ? toWarehouse : fromWarehouse);
+        // Alerts are raised after commit by AlertPipeline
+        eventPublisher.publishEvent(new StockMovementsEvent(Collections.singletonList(movedStock(saved))));
+        eventPublisher.publishEvent(new StockChangedEvent(Collections.singleton(product.getId())));
 
         return saved;
     }
 
-    private void processStockIn(Product product, Warehouse warehouse, int quantity) {
-        if (warehouse == null) {
+    private Warehouse warehouseReference(Long warehouseId) {
+        return warehouseId != null ? warehouseRepository.getReferenceById(warehouseId) : null;
+    }
+
+    private void processStockIn(Product product, Long warehouseId, int quantity) {
+        if (warehouseId == null) {
             throw new IllegalArgumentException("Kho đích không được để trống cho phiếu nhập kho");
         }
-        WarehouseStock stock = getOrCreateStock(warehouse, product);
-        stock.setQuantity(stock.getQuantity() + quantity);
-        warehouseStockRepository.save(stock);
-        log.debug("Stock IN: product={}, warehouse={}, added={}, new_total={}",
-                product.getName(), warehouse.getName(), quantity, stock.getQuantity());
+        StockLevel level = addStock(warehouseId, product, quantity);
+        log.debug("Stock IN: product={}, warehouseId={}, added={}, new_total={}",
+                product.getName(), warehouseId, quantity, level.getQuantity());
     }
 
-    private void processStockOut(Product product, Warehouse warehouse, int quantity) {
-        if (warehouse == null) {
+    private void processStockOut(Product product, Long warehouseId, int quantity) {
+        if (warehouseId == null) {
             throw new IllegalArgumentException("Kho nguồn không được để trống cho phiếu xuất kho");
         }
-        WarehouseStock stock = warehouseStockRepository.findByWarehouseAndProduct(warehouse, product)
-                .orElseThrow(() -> new InsufficientStockException(product.getName(), 0, quantity));
+        StockLevel level = removeStock(warehouseId, product, quantity);
+        log.debug("Stock OUT: product={}, warehouseId={}, removed={}, remaining={}",
+                product.getName(), warehouseId, quantity, level.getQuantity());
+    }
+
+    private void processTransfer(Product product, Long fromId, Long toId, int quantity) {
+        if (fromId == null || toId == null) {
+            throw new IllegalArgumentException("Kho nguồn và kho đích không được để trống cho phiếu chuyển kho");
+        }
 
-        if (stock.getQuantity() < quantity) {
-            throw new InsufficientStockException(product.getName(), stock.getQuantity(), quantity);
+        // Lock rows in warehouse id order (the product is the same) so that opposite
+        // transfers between two warehouses cannot deadlock. If the source turns out to be
+        // short, the exception rolls back the destination increment as well.
+        if (fromId.compareTo(toId) <= 0) {
+            transferOut(fromId, product, quantity);
+            transferIn(toId, product, quantity);
+        } else {
+            transferIn(toId, product, quantity);
+            transferOut(fromId, product, quantity);
         }
 
-        stock.setQuantity(stock.getQuantity() - quantity);
-        warehouseStockRepository.save(stock);
-        log.debug("Stock OUT: product={}, warehouse={}, removed={}, remaining={}",
-                product.getName(), warehouse.getName(), quantity, stock.getQuantity());
+        log.debug("Stock TRANSFER: product={}, fromId={}, toId={}, quantity={}",
+                product.getName(), fromId, toId, quantity);
     }
 
-    private void processTransfer(Product product, Warehouse from, Warehouse to, int quantity) {
-        if (from == null || to == null) {
-            throw new IllegalArgumentException("Kho nguồn và kho đích không được để trống cho phiếu chuyển kho");
+    private void processAdjustment(Product product, Long warehouseId, int quantity) {
+        if (warehouseId == null) {
+            throw new IllegalArgumentException("Kho hàng không được để trống cho phiếu điều chỉnh");
         }
+        StockKey key = new StockKey(warehouseId, product.getId());
+        int previous;
+        try {
+            previous = warehouseStockRepository.lockStock(Collections.singleton(key)).getQuantities().get(key);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceNotFoundException("Kho hàng", warehouseId);
+        }
+        warehouseStockRepository.setStock(warehouseId, product.getId(), quantity, previous);
+        log.debug("Stock ADJUSTMENT: product={}, warehouseId={}, previous={}, new_quantity={}",
+                product.getName(), warehouseId, previous, quantity);
+    }
 
-        // Subtract from source
-        WarehouseStock fromStock = warehouseStockRepository.findByWarehouseAndProduct(from, product)
-                .orElseThrow(() -> new InsufficientStockException(product.getName(), 0, quantity));
-
-        if (fromStock.getQuantity() < quantity) {
-            throw new InsufficientStockException(product.getName(), fromStock.getQuantity(), quantity);
+    private StockLevel addStock(Long warehouseId, Product product, int quantity) {
+        try {
+            return warehouseStockRepository.addStock(warehouseId, product.getId(), quantity);
+        } catch (DataIntegrityViolationException e) {
+            // The only foreign key the upsert can violate here is the warehouse
+            throw new ResourceNotFoundException("Kho hàng", warehouseId);
         }
+    }
 
-        fromStock.setQuantity(fromStock.getQuantity() - quantity);
-        warehouseStockRepository.save(fromStock);
+    private StockLevel removeStock(Long warehouseId, Product product, int quantity) {
+        return warehouseStockRepository.removeStock(warehouseId, product.getId(), quantity)
+                .orElseThrow(() -> stockUnavailable(warehouseId, product, quantity));
+    }
 
-        // Add to destination
-        WarehouseStock toStock = getOrCreateStock(to, product);
-        toStock.setQuantity(toStock.getQuantity() + quantity);
-        warehouseStockRepository.save(toStock);
+    private void transferIn(Long warehouseId, Product product, int quantity) {
+        try {
+            warehouseStockRepository.transferIn(warehouseId, product.getId(), quantity);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceNotFoundException("Kho hàng", warehouseId);
+        }
+    }
 
-        log.debug("Stock TRANSFER: product={}, from={}, to={}, quantity={}",
-                product.getName(), from.getName(), to.getName(), quantity);
+    private void transferOut(Long warehouseId, Product product, int quantity) {
+        warehouseStockRepository.transferOut(warehouseId, product.getId(), quantity)
+                .orElseThrow(() -> stockUnavailable(warehouseId, product, quantity));
     }
 
-    private void processAdjustment(Product product, Warehouse warehouse, int quantity) {
-        if (warehouse == null) {
-            throw new IllegalArgumentException("Kho hàng không được để trống cho phiếu điều chỉnh");
+    /**
+     * Slow path only: finds out why a conditional decrement matched no row.
+     */
+    private RuntimeException stockUnavailable(Long warehouseId, Product product, int quantity) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            return new ResourceNotFoundException("Kho hàng", warehouseId);
         }
-        WarehouseStock stock = getOrCreateStock(warehouse, product);
-        stock.setQuantity(quantity);
-        warehouseStockRepository.save(stock);
-        log.debug("Stock ADJUSTMENT: product={}, warehouse={}, new_quantity={}",
-                product.getName(), warehouse.getName(), quantity);
+        int available = warehouseStockRepository.findQuantity(warehouseId, product.getId()).orElse(0);
+        return new InsufficientStockException(product.getName(), available, quantity);
     }
 
-    private WarehouseStock getOrCreateStock(Warehouse warehouse, Product product) {
-        return warehouseStockRepository.findByWarehouseAndProduct(warehouse, product)
-                .orElse(WarehouseStock.builder()
-                        .warehouse(warehouse)
-                        .product(product)
-                        .quantity(0)
-                        .build());
+    /**
+     * Applies a batch of movements in one transaction. Every stock row touched by the batch
+     * is locked once in (warehouse, product) order, items are evaluated in submission order
+     * against the locked balances, and each row is written once with its coalesced quantity.
+     * Items that fail validation or would oversell are reported and skipped; the rest commit.
+     */
+    public StockMovementBatchResponse processBatch(List<StockMovementRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    String.format("Số phiếu trong lô vượt quá giới hạn %d", maxBatchSize));
+        }
+        log.info("Processing stock movement batch: size={}", requests.size());
+
+        Map<Long, Product> products = productRepository.findAllById(requests.stream()
+                        .map(StockMovementRequest::getProductId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Warehouse> warehouses = warehouseRepository.findAllById(requests.stream()
+                        .flatMap(r -> Stream.of(r.getFromWarehouseId(), r.getToWarehouseId()))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Warehouse::getId, Function.identity()));
+
+        StockMovementBatchResponse.ItemResult[] results = new StockMovementBatchResponse.ItemResult[requests.size()];
+        List<List<StockKey>> itemKeys = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        Set<StockKey> keys = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                itemKeys.set(i, validateBatchItem(requests.get(i), products, warehouses));
+                keys.addAll(itemKeys.get(i));
+            } catch (RuntimeException e) {
+                results[i] = batchFailure(i, e);
+            }
+        }
+
+        LockedStock lock = keys.isEmpty()
+                ? new LockedStock(Collections.emptyMap(), Collections.emptySet())
+                : warehouseStockRepository.lockStock(keys);
+        Map<StockKey, Integer> locked = lock.getQuantities();
+        Map<StockKey, Integer> balances = new HashMap<>(locked);
+        Set<StockKey> touched = new HashSet<>();
+
+        List<StockMovement> movements = new ArrayList<>();
+        List<Integer> movementIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            StockMovementRequest request = requests.get(i);
+            Product product = products.get(request.getProductId());
+            try {
+                applyToBalances(request, product, balances);
+            } catch (RuntimeException e) {
+                results[i] = batchFailure(i, e);
+                continue;
+            }
+            touched.addAll(itemKeys.get(i));
+            movements.add(StockMovement.builder()
+                    .product(product)
+                    .fromWarehouse(request.getFromWarehouseId() != null
+                            ? warehouses.get(request.getFromWarehouseId()) : null)
+                    .toWarehouse(request.getToWarehouseId() != null
+                            ? warehouses.get(request.getToWarehouseId()) : null)
+                    .quantity(request.getQuantity())
+                    .type(request.getType())
+                    .reason(request.getReason())
+                    .reference(request.getReference())
+                    .build());
+            movementIndexes.add(i);
+        }
+
+        Map<StockKey, Integer> changed = balances.entrySet().stream()
+                .filter(e -> !e.getValue().equals(locked.get(e.getKey())))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        if (!changed.isEmpty()) {
+            warehouseStockRepository.updateQuantities(changed);
+        }
+        // Rows the lock created only for items that then failed would show up as empty stock
+        Set<StockKey> unused = new HashSet<>(lock.getCreated());
+        unused.removeAll(touched);
+        if (!unused.isEmpty()) {
+            warehouseStockRepository.deleteEmptyStock(unused);
+        }
+
+        // Every product with a non-transfer movement gets its movement version bumped,
+        // even when its movements net out to no change in stock. Products moved only by
+        // transfers keep their total and version, as they do in processMovement.
+        Map<Long, Integer> totalDeltas = new HashMap<>();
+        movements.stream()
+                .filter(m -> m.getType() != MovementType.TRANSFER)
+                .forEach(m -> totalDeltas.putIfAbsent(m.getProduct().getId(), 0));
+        changed.forEach((key, quantity) ->
+                totalDeltas.computeIfPresent(key.getProductId(), (id, delta) -> delta + quantity - locked.get(key)));
+        if (!totalDeltas.isEmpty()) {
+            warehouseStockRepository.addToProductTotals(totalDeltas);
+        }
+
+        // Inserted in JDBC batches (sequence ids, hibernate.jdbc.batch_size)
+        List<StockMovement> saved = stockMovementRepository.saveAll(movements);
+        for (int j = 0; j < saved.size(); j++) {
+            int index = movementIndexes.get(j);
+            results[index] = StockMovementBatchResponse.ItemResult.builder()
+                    .index(index)
+                    .success(true)
+                    .movementId(saved.get(j).getId())
+                    .build();
+        }
+
+        if (!saved.isEmpty()) {
+            eventPublisher.publishEvent(new StockMovementsEvent(saved.stream()
+                    .map(this::movedStock)
+                    .collect(Collectors.toList())));
+            eventPublisher.publishEvent(new StockChangedEvent(saved.stream()
+                    .map(m -> m.getProduct().getId())
+                    .collect(Collectors.toSet())));
+        }
+
+        log.info("Stock movement batch processed: size={}, succeeded={}, rows_written={}",
+                requests.size(), saved.size(), changed.size());
+        return StockMovementBatchResponse.builder()
+                .total(requests.size())
+                .succeeded(saved.size())
+                .failed(requests.size() - saved.size())
+                .results(Arrays.asList(results))
+                .build();
     }
 
-    private void checkAndCreateAlerts(Product product, Warehouse warehouse) {
-        if (warehouse == null || product.getMinStockLevel() == null) {
-            return;
+    private List<StockKey> validateBatchItem(StockMovementRequest request, Map<Long, Product> products,
+                                             Map<Long, Warehouse> warehouses) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Loại phiếu không được để trống");
+        }
+        if (request.getQuantity() == null || request.getQuantity() < 1) {
+            throw new IllegalArgumentException("Số lượng phải lớn hơn 0");
+        }
+        if (request.getProductId() == null || !products.containsKey(request.getProductId())) {
+            throw new ResourceNotFoundException("Sản phẩm", request.getProductId());
+        }
+        for (Long warehouseId : Arrays.asList(request.getFromWarehouseId(), request.getToWarehouseId())) {
+            if (warehouseId != null && !warehouses.containsKey(warehouseId)) {
+                throw new ResourceNotFoundException("Kho hàng", warehouseId);
+            }
         }
 
-        Integer totalStock = warehouseStockRepository.getTotalStockByProductId(product.getId());
-        if (totalStock != null && totalStock <= product.getMinStockLevel()) {
-            AlertSeverity severity = totalStock == 0 ? AlertSeverity.CRITICAL : AlertSeverity.HIGH;
-            String message = String.format("Sản phẩm '%s' có tồn kho thấp: %d (tối thiểu: %d)",
-                    product.getName(), totalStock, product.getMinStockLevel());
-            alertService.createAlert(product, warehouse, AlertType.LOW_STOCK, message, severity);
-            log.warn("Low stock alert created for product: {}", product.getName());
+        Long productId = request.getProductId();
+        switch (request.getType()) {
+            case IN:
+                if (request.getToWarehouseId() == null) {
+                    throw new IllegalArgumentException("Kho đích không được để trống cho phiếu nhập kho");
+                }
+                return Collections.singletonList(new StockKey(request.getToWarehouseId(), productId));
+            case OUT:
+                if (request.getFromWarehouseId() == null) {
+                    throw new IllegalArgumentException("Kho nguồn không được để trống cho phiếu xuất kho");
+                }
+                return Collections.singletonList(new StockKey(request.getFromWarehouseId(), productId));
+            case TRANSFER:
+                if (request.getFromWarehouseId() == null || request.getToWarehouseId() == null) {
+                    throw new IllegalArgumentException(
+                            "Kho nguồn và kho đích không được để trống cho phiếu chuyển kho");
+                }
+                return Arrays.asList(new StockKey(request.getFromWarehouseId(), productId),
+                        new StockKey(request.getToWarehouseId(), productId));
+            case ADJUSTMENT:
+                Long warehouseId = request.getToWarehouseId() != null
+                        ? request.getToWarehouseId() : request.getFromWarehouseId();
+                if (warehouseId == null) {
+                    throw new IllegalArgumentException("Kho hàng không được để trống cho phiếu điều chỉnh");
+                }
+                return Collections.singletonList(new StockKey(warehouseId, productId));
+            default:
+                throw new IllegalArgumentException("Loại phiếu không hợp lệ: " + request.getType());
         }
     }
 
+    private void applyToBalances(StockMovementRequest request, Product product, Map<StockKey, Integer> balances) {
+        int quantity = request.getQuantity();
+        switch (request.getType()) {
+            case IN:
+                balances.merge(new StockKey(request.getToWarehouseId(), product.getId()), quantity, Integer::sum);
+                break;
+            case OUT:
+                withdraw(balances, new StockKey(request.getFromWarehouseId(), product.getId()), product, quantity);
+                break;
+            case TRANSFER:
+                withdraw(balances, new StockKey(request.getFromWarehouseId(), product.getId()), product, quantity);
+                balances.merge(new StockKey(request.getToWarehouseId(), product.getId()), quantity, Integer::sum);
+                break;
+            case ADJUSTMENT:
+                Long warehouseId = request.getToWarehouseId() != null
+                        ? request.getToWarehouseId() : request.getFromWarehouseId();
+                balances.put(new StockKey(warehouseId, product.getId()), quantity);
+                break;
+            default:
+                throw new IllegalArgumentException("Loại phiếu không hợp lệ: " + request.getType());
+        }
+    }
+
+    private void withdraw(Map<StockKey, Integer> balances, StockKey key, Product product, int quantity) {
+        int available = balances.getOrDefault(key, 0);
+        if (available < quantity) {
+            throw new InsufficientStockException(product.getName(), available, quantity);
+        }
+        balances.put(key, available - quantity);
+    }
+
+    private StockMovementBatchResponse.ItemResult batchFailure(int index, RuntimeException e) {
+        return StockMovementBatchResponse.ItemResult.builder()
+                .index(index)
+                .success(false)
+                .message(e.getMessage())
+                .build();
+    }
+
+    private StockMovementsEvent.Movement movedStock(StockMovement movement) {
+        Product product = movement.getProduct();
+        Warehouse warehouse = movement.getToWarehouse() != null ? movement.getToWarehouse() : movement.getFromWarehouse();
+        return new StockMovementsEvent.Movement(product.getId(), product.getName(), product.getMinStockLevel(),
+                warehouse != null ? warehouse.getId() : null, movement.getType(), movement.getQuantity());
+    }
+
     @Transactional(readOnly = true)
     public List<StockMovement> findRecent() {
         return stockMovementRepository.findRecent(PageRequest.of(0, 50));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<StockMovementResponse> findPage(String cursor, Integer size) {
+        int pageSize = CursorPage.sizeOf(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<StockMovementResponse> rows;
+        if (cursor == null) {
+            rows = stockMovementRepository.findFirstPage(limit);
+        } else {
+            PageCursor position = PageCursor.decodeTimestamped(cursor);
+            rows = stockMovementRepository.findPageBefore(position.getCreatedAt(), position.getId(), limit);
+        }
+        return CursorPage.of(rows, pageSize, m -> PageCursor.of(m.getCreatedAt(), m.getId()).encode());
+    }
+
     @Transactional(readOnly = true)
     public List<StockMovement> findByProduct(Long productId) {
         return stockMovementRepository.findByProductIdOrderByCreatedAtDesc(productId);
     }
 
+    /**
+     * Gap-filled daily IN/OUT series of the product over the last {@code days} days, today included.
+     */
+    @Transactional(readOnly = true)
+    public DemandSeries getDemandSeries(Long productId, int days) {
+        DemandSeries series = new DemandSeries(LocalDate.now(), days);
+        for (DailyMovementTotal total : stockMovementRepository.sumDailyByProduct(
+                productId, series.getStart().atStartOfDay())) {
+            series.add(total.getDay(), total.getQuantityIn().intValue(), total.getQuantityOut().intValue());
+        }
+        return series;
+    }
+
     @Transactional(readOnly = true)
     public List<StockMovement> getDailyStats(LocalDateTime start, LocalDateTime end) {
         return stockMovementRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(start, end);
@@ -0,0 +1,57 @@
+package com.warehouse.inventory.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV. Starts with a UTF-8 BOM so Excel opens Vietnamese text correctly.
+ */
+public class CsvReportWriter implements ReportWriter {
+
+    private final Writer writer;
+    private boolean started;
+
+    public CsvReportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        if (!started) {
+            writer.write('\uFEFF');
+            started = true;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void abort() {
+        // The buffered tail is never flushed, so the download ends short of the last rows
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,78 @@
+package com.warehouse.inventory.util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Daily IN/OUT quantities of one product over a fixed window of days, gap-filled with zeros.
+ * Index 0 is {@link #getStart()} and the last index is the window's final day, so quiet
+ * days at either end are part of the series instead of being left for the reader to infer.
+ */
+public final class DemandSeries {
+
+    private final LocalDate start;
+    private final int[] quantityIn;
+    private final int[] quantityOut;
+
+    /**
+     * An all-zero series of {@code days} days ending with {@code end}.
+     */
+    public DemandSeries(LocalDate end, int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Series must cover at least one day");
+        }
+        this.start = end.minusDays(days - 1L);
+        this.quantityIn = new int[days];
+        this.quantityOut = new int[days];
+    }
+
+    /**
+     * Adds one day's totals; days outside the window are ignored.
+     */
+    public void add(LocalDate day, int in, int out) {
+        long index = ChronoUnit.DAYS.between(start, day);
+        if (index >= 0 && index < quantityIn.length) {
+            quantityIn[(int) index] += in;
+            quantityOut[(int) index] += out;
+        }
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public int length() {
+        return quantityIn.length;
+    }
+
+    public LocalDate dayAt(int index) {
+        return start.plusDays(index);
+    }
+
+    public int quantityInAt(int index) {
+        return quantityIn[index];
+    }
+
+    public int quantityOutAt(int index) {
+        return quantityOut[index];
+    }
+
+    /**
+     * Outbound quantity per day, the demand signal forecasts work on.
+     */
+    public double[] demand() {
+        double[] demand = new double[quantityOut.length];
+        for (int i = 0; i < demand.length; i++) {
+            demand[i] = quantityOut[i];
+        }
+        return demand;
+    }
+
+    public long totalOut() {
+        long total = 0;
+        for (int quantity : quantityOut) {
+            total += quantity;
+        }
+        return total;
+    }
+}
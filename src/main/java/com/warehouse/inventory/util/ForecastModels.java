@@ -0,0 +1,225 @@
+package com.warehouse.inventory.util;
+
+import java.util.Arrays;
+
+/**
+ * In-process demand forecasting over daily demand arrays.
+ * Provides moving average, additive Holt-Winters and Croston (SBA) models, and
+ * {@link #forecast} to pick one from the shape of the series. Every model is a single pass
+ * over the input that allocates little more than the returned forecast, so a forecast over
+ * a few hundred days costs microseconds.
+ */
+public final class ForecastModels {
+
+    /** Weekly seasonality of daily demand. */
+    public static final int WEEK = 7;
+
+    /** Average days between demands above which a series counts as intermittent. */
+    public static final double INTERMITTENT_ADI = 1.32;
+
+    private static final double[] ALPHAS = {0.1, 0.3, 0.5};
+    private static final double[] BETAS = {0.01, 0.1};
+    private static final double[] GAMMAS = {0.1, 0.3};
+    private static final double CROSTON_ALPHA = 0.1;
+
+    private ForecastModels() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Forecast of one model with its in-sample one-step mean absolute error.
+     */
+    public static final class Result {
+        private final String model;
+        private final double[] predictions;
+        private final double meanAbsoluteError;
+
+        Result(String model, double[] predictions, double meanAbsoluteError) {
+            this.model = model;
+            this.predictions = predictions;
+            this.meanAbsoluteError = meanAbsoluteError;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public double[] getPredictions() {
+            return predictions;
+        }
+
+        public double getMeanAbsoluteError() {
+            return meanAbsoluteError;
+        }
+    }
+
+    /**
+     * Picks a model for the series: none for no demand, Croston for intermittent demand,
+     * Holt-Winters with weekly seasonality given two full weeks, moving average otherwise.
+     *
+     * @param demand  daily demand, oldest first
+     * @param horizon number of days to forecast
+     */
+    public static Result forecast(double[] demand, int horizon) {
+        int nonZero = 0;
+        for (double d : demand) {
+            if (d > 0) {
+                nonZero++;
+            }
+        }
+        if (nonZero == 0) {
+            return new Result("none", new double[horizon], 0);
+        }
+        if ((double) demand.length / nonZero >= INTERMITTENT_ADI) {
+            return croston(demand, CROSTON_ALPHA, horizon);
+        }
+        if (demand.length >= 2 * WEEK) {
+            return holtWinters(demand, WEEK, horizon);
+        }
+        return movingAverage(demand, WEEK, horizon);
+    }
+
+    /**
+     * Flat forecast at the mean of the last {@code window} days.
+     */
+    public static Result movingAverage(double[] demand, int window, int horizon) {
+        double error = 0;
+        int errors = 0;
+        double sum = 0;
+        for (int t = 0; t < demand.length; t++) {
+            if (t >= window) {
+                error += Math.abs(demand[t] - sum / window);
+                errors++;
+                sum -= demand[t - window];
+            }
+            sum += demand[t];
+        }
+        int n = Math.min(window, demand.length);
+        double level = n == 0 ? 0 : sum / n;
+        double[] predictions = new double[horizon];
+        Arrays.fill(predictions, level);
+        return new Result("moving_average", predictions, errors == 0 ? 0 : error / errors);
+    }
+
+    /**
+     * Additive Holt-Winters with smoothing parameters chosen from a small grid by in-sample
+     * one-step error. Needs two full seasons; shorter series fall back to a moving average.
+     */
+    public static Result holtWinters(double[] demand, int season, int horizon) {
+        if (demand.length < 2 * season) {
+            return movingAverage(demand, season, horizon);
+        }
+        double bestError = Double.MAX_VALUE;
+        double bestAlpha = ALPHAS[0];
+        double bestBeta = BETAS[0];
+        double bestGamma = GAMMAS[0];
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    double error = holtWinters(demand, season, alpha, beta, gamma, null);
+                    if (error < bestError) {
+                        bestError = error;
+                        bestAlpha = alpha;
+                        bestBeta = beta;
+                        bestGamma = gamma;
+                    }
+                }
+            }
+        }
+        double[] predictions = new double[horizon];
+        holtWinters(demand, season, bestAlpha, bestBeta, bestGamma, predictions);
+        return new Result("holt_winters", predictions, bestError);
+    }
+
+    /**
+     * Runs additive Holt-Winters with fixed parameters and returns the mean absolute one-step
+     * error; fills {@code predictions} (clamped at zero) when it is not null.
+     */
+    public static double holtWinters(double[] demand, int season, double alpha, double beta, double gamma,
+                                     double[] predictions) {
+        int n = demand.length;
+        double firstMean = 0;
+        double secondMean = 0;
+        for (int i = 0; i < season; i++) {
+            firstMean += demand[i];
+            secondMean += demand[i + season];
+        }
+        firstMean /= season;
+        secondMean /= season;
+
+        double level = firstMean;
+        double trend = (secondMean - firstMean) / season;
+        double[] seasonal = new double[season];
+        for (int i = 0; i < season; i++) {
+            seasonal[i] = demand[i] - firstMean;
+        }
+
+        double error = 0;
+        for (int t = season; t < n; t++) {
+            int s = t % season;
+            double expected = level + trend + seasonal[s];
+            error += Math.abs(demand[t] - expected);
+
+            double previousLevel = level;
+            level = alpha * (demand[t] - seasonal[s]) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            seasonal[s] = gamma * (demand[t] - level) + (1 - gamma) * seasonal[s];
+        }
+
+        if (predictions != null) {
+            for (int h = 1; h <= predictions.length; h++) {
+                predictions[h - 1] = Math.max(0, level + h * trend + seasonal[(n - 1 + h) % season]);
+            }
+        }
+        return error / (n - season);
+    }
+
+    /**
+     * Croston's method with the Syntetos-Boylan bias correction: smooths demand size and the
+     * interval between demands separately and forecasts their ratio as a flat daily rate.
+     */
+    public static Result croston(double[] demand, double alpha, int horizon) {
+        double size = 0;
+        double interval = 0;
+        int sinceLast = 0;
+        boolean started = false;
+        double error = 0;
+        int errors = 0;
+        for (double d : demand) {
+            sinceLast++;
+            if (started) {
+                error += Math.abs(d - (1 - alpha / 2) * size / interval);
+                errors++;
+            }
+            if (d > 0) {
+                if (started) {
+                    size += alpha * (d - size);
+                    interval += alpha * (sinceLast - interval);
+                } else {
+                    size = d;
+                    interval = sinceLast;
+                    started = true;
+                }
+                sinceLast = 0;
+            }
+        }
+        double rate = started ? (1 - alpha / 2) * size / interval : 0;
+        double[] predictions = new double[horizon];
+        Arrays.fill(predictions, rate);
+        return new Result("croston", predictions, errors == 0 ? 0 : error / errors);
+    }
+
+    /**
+     * Mean of the array, 0 when empty.
+     */
+    public static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+}
@@ -0,0 +1,75 @@
+package com.warehouse.inventory.util;
+
+import com.warehouse.inventory.exception.InvalidCursorException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for cursor pagination: the sort key of the last row on a page,
+ * plus its id as tie-breaker. {@code createdAt} is null for lists ordered by id alone.
+ */
+@Value
+public class PageCursor {
+
+    private static final char SEPARATOR = '~';
+
+    LocalDateTime createdAt;
+    long id;
+
+    public static PageCursor of(long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime createdAt, long id) {
+        return new PageCursor(createdAt, id);
+    }
+
+    public String encode() {
+        String raw = createdAt != null ? createdAt.toString() + SEPARATOR + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor of a list ordered by id alone, as produced by {@link #of(long)}.
+     *
+     * @throws InvalidCursorException if the cursor is malformed or carries a timestamp
+     */
+    public static PageCursor decodeId(String cursor) {
+        PageCursor position = decode(cursor);
+        if (position.createdAt != null) {
+            throw new InvalidCursorException(cursor);
+        }
+        return position;
+    }
+
+    /**
+     * Decodes a cursor of a list ordered by timestamp, as produced by
+     * {@link #of(LocalDateTime, long)}.
+     *
+     * @throws InvalidCursorException if the cursor is malformed or carries no timestamp
+     */
+    public static PageCursor decodeTimestamped(String cursor) {
+        PageCursor position = decode(cursor);
+        if (position.createdAt == null) {
+            throw new InvalidCursorException(cursor);
+        }
+        return position;
+    }
+
+    private static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Long.parseLong(raw));
+            }
+            return of(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
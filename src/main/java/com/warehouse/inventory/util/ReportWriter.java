@@ -0,0 +1,33 @@
+package com.warehouse.inventory.util;
+
+import com.warehouse.inventory.enums.ExportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Row-at-a-time sink for report exports. Implementations hold at most a small window of
+ * rows in memory; {@link #close()} flushes what is left but does not close the target stream.
+ * A failed export calls {@link #abort()} instead, so the client never gets a file that looks
+ * complete.
+ */
+public interface ReportWriter extends Closeable {
+
+    void writeRow(Object... values) throws IOException;
+
+    /**
+     * Drops whatever has not reached the target stream yet and releases the writer.
+     */
+    void abort();
+
+    static ReportWriter create(ExportFormat format, OutputStream out, String sheetName) {
+        switch (format) {
+            case XLSX:
+                return new XlsxReportWriter(out, sheetName);
+            case CSV:
+            default:
+                return new CsvReportWriter(out);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.warehouse.inventory.util;
+
+/**
+ * Running mean and variance of a stream in O(1) time and space per sample.
+ * The first {@code 1 / alpha} samples are weighted equally (Welford's algorithm); after that
+ * each sample gets weight {@code alpha}, so the statistics follow a drifting level instead of
+ * averaging over the whole history. Not thread-safe.
+ */
+public final class RollingStats {
+
+    private final double alpha;
+    private long count;
+    private double mean;
+    private double variance;
+
+    public RollingStats(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+    }
+
+    public void add(double value) {
+        count++;
+        double weight = Math.max(1.0 / count, alpha);
+        double diff = value - mean;
+        double increment = weight * diff;
+        mean += increment;
+        variance = (1 - weight) * (variance + diff * increment);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getVariance() {
+        return variance;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(variance);
+    }
+}
@@ -0,0 +1,77 @@
+package com.warehouse.inventory.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming XLSX through SXSSF: only the last {@value #WINDOW_SIZE} rows stay in memory,
+ * older rows are flushed to a compressed temp file until {@link #close()}. Nothing reaches the
+ * target stream before then, so an aborted export writes no bytes at all.
+ */
+public class XlsxReportWriter implements ReportWriter {
+
+    private static final int WINDOW_SIZE = 100;
+
+    /** Hard limit of the XLSX format, header row included. */
+    public static final int MAX_ROWS = 1_048_576;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final int maxRows;
+    private int rowIndex;
+
+    public XlsxReportWriter(OutputStream out, String sheetName) {
+        this(out, sheetName, MAX_ROWS);
+    }
+
+    XlsxReportWriter(OutputStream out, String sheetName, int maxRows) {
+        this.out = out;
+        this.maxRows = maxRows;
+        this.workbook = new SXSSFWorkbook(WINDOW_SIZE);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        if (rowIndex >= maxRows) {
+            throw new IOException("Vượt quá số dòng tối đa của tệp XLSX (" + maxRows + "), hãy dùng định dạng CSV");
+        }
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    @Override
+    public void abort() {
+        // Nothing has been written to the target yet; only the temp files need removing
+        workbook.dispose();
+    }
+}
@@ -0,0 +1,42 @@
+-- Executed on every startup after Hibernate schema handling; statements must be idempotent.
+
+-- product_stock_totals is maintained by the stock write path. Seed it for products whose
+-- warehouse_stock rows predate the table; existing totals are left alone.
+INSERT INTO product_stock_totals (product_id, total_quantity, updated_at)
+SELECT product_id, SUM(quantity), now() FROM warehouse_stock GROUP BY product_id
+ON CONFLICT (product_id) DO NOTHING;
+
+-- low_stock is maintained by the stock write path and product updates. Correct any row that
+-- disagrees (new column, seeded rows, edits made outside the application); others are not rewritten.
+UPDATE product_stock_totals t
+SET low_stock = (p.active AND p.min_stock_level IS NOT NULL AND t.total_quantity <= p.min_stock_level)
+FROM products p
+WHERE p.id = t.product_id
+  AND t.low_stock IS DISTINCT FROM (p.active AND p.min_stock_level IS NOT NULL AND t.total_quantity <= p.min_stock_level);
+
+-- Low-stock lookups read only the flagged rows.
+CREATE INDEX IF NOT EXISTS idx_product_stock_totals_low_stock ON product_stock_totals (product_id) WHERE low_stock;
+
+UPDATE alerts SET last_seen_at = created_at WHERE last_seen_at IS NULL;
+
+-- At most one open alert per product, warehouse and type. Duplicates raised before coalescing
+-- are folded into the newest one, which takes their occurrences; the rest are resolved.
+WITH ranked AS (
+    SELECT id,
+           row_number() OVER w AS rn,
+           sum(occurrence_count) OVER (PARTITION BY COALESCE(product_id, 0), COALESCE(warehouse_id, 0), type) AS total,
+           min(created_at) OVER (PARTITION BY COALESCE(product_id, 0), COALESCE(warehouse_id, 0), type) AS first_seen
+    FROM alerts
+    WHERE NOT resolved
+    WINDOW w AS (PARTITION BY COALESCE(product_id, 0), COALESCE(warehouse_id, 0), type ORDER BY created_at DESC, id DESC)
+), kept AS (
+    UPDATE alerts a SET occurrence_count = r.total, created_at = r.first_seen
+    FROM ranked r
+    WHERE a.id = r.id AND r.rn = 1 AND r.total > a.occurrence_count
+)
+UPDATE alerts a SET resolved = true, resolved_by = 'system', resolved_at = now()
+FROM ranked r
+WHERE a.id = r.id AND r.rn > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_alerts_open ON alerts (COALESCE(product_id, 0), COALESCE(warehouse_id, 0), type)
+    WHERE NOT resolved;
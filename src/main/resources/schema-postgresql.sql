@@ -0,0 +1,22 @@
+-- Executed on every startup before Hibernate schema handling; statements must be idempotent.
+
+-- stock_movements ids come from a pooled sequence (allocationSize = 50) so inserts can be batched.
+-- Databases created while the id was IDENTITY still have the bigserial sequence stepping by 1.
+ALTER SEQUENCE IF EXISTS stock_movements_id_seq INCREMENT BY 50;
+
+-- movement_version keys cached forecasts; add it before Hibernate validates the schema.
+ALTER TABLE IF EXISTS product_stock_totals ADD COLUMN IF NOT EXISTS movement_version bigint NOT NULL DEFAULT 0;
+
+-- low_stock flags totals at or below the product's minimum; filled in by post-schema on first run.
+ALTER TABLE IF EXISTS product_stock_totals ADD COLUMN IF NOT EXISTS low_stock boolean NOT NULL DEFAULT false;
+
+-- Stored forecasts record the movement version they were computed from.
+ALTER TABLE IF EXISTS ai_predictions ADD COLUMN IF NOT EXISTS movement_version bigint;
+
+-- Open alerts are coalesced per product, warehouse and type (see post-schema).
+ALTER TABLE IF EXISTS alerts ADD COLUMN IF NOT EXISTS occurrence_count integer NOT NULL DEFAULT 1;
+ALTER TABLE IF EXISTS alerts ADD COLUMN IF NOT EXISTS last_seen_at timestamp;
+
+-- Daily inbound and outbound quantities feed the dashboard trend chart; older rows stay empty.
+ALTER TABLE IF EXISTS dashboard_stats ADD COLUMN IF NOT EXISTS inbound_quantity bigint;
+ALTER TABLE IF EXISTS dashboard_stats ADD COLUMN IF NOT EXISTS outbound_quantity bigint;
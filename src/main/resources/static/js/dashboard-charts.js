@@ -30,7 +30,12 @@ document.addEventListener('DOMContentLoaded', function () {
     // ============================================================
     var stockTrendCtx = document.getElementById('stockTrendChart');
     if (stockTrendCtx) {
-        // Generate sample 30-day labels
+        // Daily rows from dashboard_stats (set inline by dashboard.html); days without a row show 0
+        var statsByDate = {};
+        (window.dashboardTrend || []).forEach(function (stat) {
+            statsByDate[stat.statDate] = stat;
+        });
+
         var trendLabels = [];
         var inboundData = [];
         var outboundData = [];
@@ -41,18 +46,11 @@ document.addEventListener('DOMContentLoaded', function () {
             date.setDate(date.getDate() - i);
             trendLabels.push(date.toLocaleDateString('vi-VN', { day: '2-digit', month: '2-digit' }));
 
-            // Generate realistic sample data
-            var baseInbound = 45 + Math.floor(Math.random() * 30);
-            var baseOutbound = 35 + Math.floor(Math.random() * 25);
-
-            // Weekend dip
-            if (date.getDay() === 0 || date.getDay() === 6) {
-                baseInbound = Math.floor(baseInbound * 0.4);
-                baseOutbound = Math.floor(baseOutbound * 0.5);
-            }
-
-            inboundData.push(baseInbound);
-            outboundData.push(baseOutbound);
+            var key = date.getFullYear() + '-' + ('0' + (date.getMonth() + 1)).slice(-2) + '-' +
+                ('0' + date.getDate()).slice(-2);
+            var stat = statsByDate[key];
+            inboundData.push(stat && stat.inboundQuantity ? stat.inboundQuantity : 0);
+            outboundData.push(stat && stat.outboundQuantity ? stat.outboundQuantity : 0);
         }
 
         var stockTrendChart = new Chart(stockTrendCtx, {
@@ -0,0 +1,107 @@
+package com.warehouse.inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Base for tests of the PostgreSQL specific SQL: the stock ledger, the upserts and alert
+ * coalescing. Tests run against a throwaway PostgreSQL container, or, when
+ * {@code -Dit.datasource.url} names a server, e.g.
+ * {@code mvn test -Dit.datasource.url=jdbc:postgresql://localhost:5432/inventory_db}, against
+ * a {@value #DATABASE} database on it that is recreated once per run (the user needs CREATEDB).
+ * They are skipped when neither is available. Every table is emptied after each test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@PostgresIntegrationTest.EnabledWithDatabase
+public abstract class PostgresIntegrationTest {
+
+    // @EnabledIf itself is not @Inherited, so the subclasses only see it through this annotation
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Inherited
+    @EnabledIf("com.warehouse.inventory.PostgresIntegrationTest#databaseAvailable")
+    @interface EnabledWithDatabase {
+    }
+
+    private static final String DATABASE = "inventory_it";
+
+    private static String url;
+    private static String username;
+    private static String password;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static boolean databaseAvailable() {
+        return System.getProperty("it.datasource.url") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        connect();
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> username);
+        registry.add("spring.datasource.password", () -> password);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    // Every test class shares one database per run, even across Spring contexts
+    private static synchronized void connect() {
+        if (url != null) {
+            return;
+        }
+        String serverUrl = System.getProperty("it.datasource.url");
+        if (serverUrl == null) {
+            // Stopped with the JVM by the Testcontainers reaper
+            PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:14-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+            return;
+        }
+
+        username = System.getProperty("it.datasource.username", "inventory");
+        password = System.getProperty("it.datasource.password", "inventory123");
+        // A database rather than a schema: Hibernate's schema update matches sequences by name
+        // across schemas, so it would not create ones that also exist in the server's public schema
+        try (Connection connection = DriverManager.getConnection(serverUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + DATABASE);
+            statement.execute("CREATE DATABASE " + DATABASE);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create database " + DATABASE + " at " + serverUrl, e);
+        }
+        url = serverUrl.replaceFirst("^(jdbc:postgresql://[^/]*/)[^?]*", "$1" + DATABASE);
+    }
+
+    @AfterEach
+    void emptyTables() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT quote_ident(tablename) FROM pg_tables WHERE schemaname = current_schema()", String.class);
+        if (!tables.isEmpty()) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + String.join(", ", tables) + " CASCADE");
+        }
+    }
+}
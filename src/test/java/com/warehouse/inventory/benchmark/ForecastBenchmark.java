@@ -0,0 +1,146 @@
+package com.warehouse.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.warehouse.inventory.dto.request.ForecastBatchRequest;
+import com.warehouse.inventory.dto.response.ForecastResponse;
+import com.warehouse.inventory.util.DemandSeries;
+import com.warehouse.inventory.util.ForecastModels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a local forecast against a round trip to the AI service's forecast endpoint for
+ * the same 180-day series. The round trip goes to a stub that answers with a canned forecast,
+ * so it measures serialization and HTTP only; set {@code benchmark.ai.url} to time a running
+ * AI service instead.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}, adding
+ * {@code -Dbenchmark.jvmArgs="-Dbenchmark.ai.url=http://host:8000"} for a running service. The
+ * JMH JVM is a new process, so a plain {@code -Dbenchmark.ai.url} on the Maven command line
+ * never reaches it; JMH's forks inherit the arguments it was started with.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForecastBenchmark {
+
+    private static final int DAYS = 180;
+    private static final int HORIZON = 30;
+
+    private DemandSeries series;
+    private double[] demand;
+    private ForecastBatchRequest.Item item;
+    private HttpServer server;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        series = new DemandSeries(LocalDate.now(), DAYS);
+        Random random = new Random(42);
+        for (int i = 0; i < DAYS; i++) {
+            int weekday = i % ForecastModels.WEEK >= 5 ? 3 : 12;
+            series.add(series.dayAt(i), random.nextInt(20), weekday + random.nextInt(5));
+        }
+        demand = series.demand();
+        item = ForecastBatchRequest.Item.builder()
+                .productId(1L)
+                .productName("Benchmark")
+                .historicalData(series)
+                .forecastDays(HORIZON)
+                .build();
+        restTemplate = new RestTemplate();
+
+        url = System.getProperty("benchmark.ai.url");
+        if (url == null) {
+            byte[] response = cannedForecast();
+            // Without TCP_NODELAY the stub's replies wait out delayed ACKs and the benchmark
+            // measures the 40 ms timer instead of the round trip
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/ai/forecast", exchange -> {
+                try (InputStream in = exchange.getRequestBody()) {
+                    in.readAllBytes();
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            });
+            server.start();
+            url = "http://localhost:" + server.getAddress().getPort();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Benchmark
+    public ForecastModels.Result localForecast() {
+        return ForecastModels.forecast(series.demand(), HORIZON);
+    }
+
+    @Benchmark
+    public ForecastModels.Result movingAverage() {
+        return ForecastModels.movingAverage(demand, ForecastModels.WEEK, HORIZON);
+    }
+
+    @Benchmark
+    public ForecastModels.Result holtWinters() {
+        return ForecastModels.holtWinters(demand, ForecastModels.WEEK, HORIZON);
+    }
+
+    @Benchmark
+    public ForecastModels.Result croston() {
+        return ForecastModels.croston(demand, 0.1, HORIZON);
+    }
+
+    @Benchmark
+    public ForecastResponse httpRoundTrip() {
+        return restTemplate.postForObject(url + "/api/ai/forecast", item, ForecastResponse.class);
+    }
+
+    private static byte[] cannedForecast() throws IOException {
+        List<ForecastResponse.DayPrediction> predictions = new ArrayList<>();
+        for (int i = 1; i <= HORIZON; i++) {
+            predictions.add(new ForecastResponse.DayPrediction(LocalDate.now().plusDays(i).toString(), 10.0));
+        }
+        return new ObjectMapper().writeValueAsBytes(ForecastResponse.builder()
+                .productId(1L)
+                .productName("Benchmark")
+                .predictions(predictions)
+                .confidence(0.8)
+                .recommendation("Nhu cầu ổn định")
+                .build());
+    }
+}
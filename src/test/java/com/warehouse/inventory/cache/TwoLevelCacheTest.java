@@ -0,0 +1,82 @@
+package com.warehouse.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TwoLevelCache Unit Tests")
+class TwoLevelCacheTest {
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache;
+    private ConcurrentMapCache redisCache;
+    private List<String> published;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = Caffeine.newBuilder().maximumSize(100).build();
+        redisCache = new ConcurrentMapCache("forecasts", false);
+        published = new ArrayList<>();
+        cache = new TwoLevelCache("forecasts", nearCache, redisCache,
+                (name, key) -> published.add(name + "::" + key));
+    }
+
+    @Test
+    @DisplayName("A Redis hit should be copied into the near cache and served from it afterwards")
+    void test_get_promotesRedisHit() {
+        redisCache.put(42L, "forecast");
+
+        assertThat(cache.get(42L).get()).isEqualTo("forecast");
+        redisCache.evict(42L);
+
+        assertThat(cache.get(42L).get()).isEqualTo("forecast");
+        assertThat(nearCache.getIfPresent("42")).isEqualTo("forecast");
+    }
+
+    @Test
+    @DisplayName("Loading through the cache should call the loader once and publish nothing")
+    void test_getWithLoader_loadsOnce() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(7L, () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get(7L, () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(redisCache.get(7L).get()).isEqualTo("v1");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Writes should update both tiers and broadcast an invalidation")
+    void test_putAndEvict_publish() {
+        cache.put(1L, "a");
+        assertThat(nearCache.getIfPresent("1")).isEqualTo("a");
+        assertThat(redisCache.get(1L).get()).isEqualTo("a");
+
+        cache.evict(1L);
+        assertThat(nearCache.getIfPresent("1")).isNull();
+        assertThat(redisCache.get(1L)).isNull();
+
+        cache.clear();
+        assertThat(published).containsExactly("forecasts::1", "forecasts::1", "forecasts::null");
+    }
+
+    @Test
+    @DisplayName("A remote invalidation should drop only the near copy")
+    void test_evictLocal_keepsRedis() {
+        cache.put(5L, "x");
+
+        cache.evictLocal("5");
+
+        assertThat(nearCache.getIfPresent("5")).isNull();
+        assertThat(cache.get(5L).get()).isEqualTo("x");
+    }
+}
@@ -0,0 +1,110 @@
+package com.warehouse.inventory.controller;
+
+import com.warehouse.inventory.dto.response.AnomalyResult;
+import com.warehouse.inventory.dto.response.ReorderSuggestion;
+import com.warehouse.inventory.exception.AiServiceException;
+import com.warehouse.inventory.service.AiAsyncService;
+import com.warehouse.inventory.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AiController Unit Tests")
+class AiControllerTest {
+
+    @Mock
+    private AiAsyncService aiAsyncService;
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private AiController aiController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aiController, "asyncTimeoutMs", 20000L);
+        mockMvc = MockMvcBuilders.standaloneSetup(aiController).build();
+    }
+
+    @Test
+    @DisplayName("Anomalies should be answered asynchronously once the AI call completes")
+    void test_getAnomalies_async() throws Exception {
+        CompletableFuture<List<AnomalyResult>> pending = new CompletableFuture<>();
+        when(aiAsyncService.detectAnomalies()).thenReturn(pending);
+
+        MvcResult result = mockMvc.perform(get("/api/ai/anomalies"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        pending.complete(Collections.singletonList(AnomalyResult.builder().productId(7L).build()));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[0].productId").value(7));
+    }
+
+    @Test
+    @DisplayName("AI failure should become an error response")
+    void test_getAnomalies_aiFailure() throws Exception {
+        CompletableFuture<List<AnomalyResult>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new AiServiceException("AI lỗi"));
+        when(aiAsyncService.detectAnomalies()).thenReturn(failed);
+
+        MvcResult result = mockMvc.perform(get("/api/ai/anomalies"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("AI lỗi"));
+    }
+
+    @Test
+    @DisplayName("Slow reorder suggestions should time out to an empty list and cancel the call")
+    void test_getReorderSuggestions_timeout() throws Exception {
+        CompletableFuture<List<ReorderSuggestion>> call = new CompletableFuture<>();
+        when(aiAsyncService.getReorderSuggestions()).thenReturn(call);
+
+        MvcResult result = mockMvc.perform(get("/api/ai/suggestions"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // MockMvc has no container timer; fire the timeout the way the container would
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data").isEmpty());
+        // A call still queued on the AI pool is skipped instead of run for nobody
+        assertThat(call).isCancelled();
+    }
+}
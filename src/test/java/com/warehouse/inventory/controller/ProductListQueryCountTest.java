@@ -0,0 +1,162 @@
+package com.warehouse.inventory.controller;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.ProductResponse;
+import com.warehouse.inventory.entity.Category;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Supplier;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.CategoryRepository;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.SupplierRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import com.warehouse.inventory.service.ProductService;
+import com.warehouse.inventory.service.StockMovementService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.ui.ExtendedModelMap;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the products page against N+1 queries by counting the JDBC statements issued
+ * while building the list model.
+ */
+@DisplayName("Product list query count Tests")
+class ProductListQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int PRODUCTS = 30;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        // Statistics are global; a dashboard rebuild on the scheduler thread would be counted too
+        registry.add("dashboard.snapshot.refresh-interval-ms", () -> Long.MAX_VALUE);
+    }
+
+    @Autowired
+    private ProductController productController;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("QC-" + suffix).name("Query Count").type(WarehouseType.MAIN).build());
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Category category = categoryRepository.save(Category.builder().name("QC " + suffix + " " + i).build());
+            Supplier supplier = supplierRepository.save(Supplier.builder().name("QC " + suffix + " " + i).build());
+            Product product = productRepository.save(Product.builder()
+                    .sku("QC-" + suffix + "-" + i)
+                    .name("QC " + suffix + " " + i)
+                    .category(category)
+                    .supplier(supplier)
+                    .build());
+            stockMovementService.processMovement(StockMovementRequest.builder()
+                    .productId(product.getId())
+                    .toWarehouseId(warehouse.getId())
+                    .type(MovementType.IN)
+                    .quantity(i + 1)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Products page should load its first page with one statement")
+    void test_list_singleStatement() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        ExtendedModelMap model = new ExtendedModelMap();
+        productController.list(null, null, null, model);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        List<ProductResponse> products = (List<ProductResponse>) model.get("products");
+        assertThat(products).hasSizeLessThanOrEqualTo(CursorPage.DEFAULT_SIZE);
+        assertThat(productRepository.findActiveResponses()).filteredOn(p -> p.getSku().startsWith("QC-" + suffix))
+                .hasSize(PRODUCTS)
+                .allSatisfy(p -> {
+                    assertThat(p.getCategoryName()).startsWith("QC " + suffix);
+                    assertThat(p.getSupplierName()).startsWith("QC " + suffix);
+                    assertThat(p.getTotalStock()).isPositive();
+                });
+    }
+
+    @Test
+    @DisplayName("Keyset pages should cost one statement each and visit every product once")
+    void test_keysetPages_singleStatementAndStable() {
+        Statistics statistics = statistics();
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPage<ProductResponse> page = productService.findPageAsResponse(cursor, 7);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(7);
+            page.getItems().stream().map(ProductResponse::getSku).forEach(seen::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isGreaterThan(1);
+        assertThat(seen).doesNotHaveDuplicates();
+        assertThat(seen).filteredOn(sku -> sku.startsWith("QC-" + suffix)).hasSize(PRODUCTS);
+    }
+
+    @Test
+    @DisplayName("Product search should load every match with one statement")
+    void test_search_singleStatement() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        ExtendedModelMap model = new ExtendedModelMap();
+        productController.list("QC-" + suffix, null, null, model);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat((List<?>) model.get("products")).hasSize(PRODUCTS);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
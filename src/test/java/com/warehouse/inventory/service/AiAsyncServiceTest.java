@@ -0,0 +1,109 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.dto.response.AnomalyResult;
+import com.warehouse.inventory.dto.response.ReorderSuggestion;
+import com.warehouse.inventory.exception.AiServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AiAsyncService Unit Tests")
+class AiAsyncServiceTest {
+
+    @Mock
+    private AiIntegrationService aiIntegrationService;
+
+    @Mock
+    private AiServiceClient aiServiceClient;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private AiAsyncService aiAsyncService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(aiServiceClient.getTimeoutMs(any())).thenReturn(5000L);
+        when(aiServiceClient.getTimeoutMs(AiServiceClient.Endpoint.ANOMALY)).thenReturn(15000L);
+        // Two threads and a 20s timeout: 2 anomaly calls in flight, 8 of each 5s endpoint
+        aiAsyncService = new AiAsyncService(aiIntegrationService, aiServiceClient, new SimpleMeterRegistry(),
+                2, 20, 20000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        aiAsyncService.shutdown();
+    }
+
+    private List<AnomalyResult> blocked() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Collections.emptyList();
+    }
+
+    @Test
+    @DisplayName("Slow endpoint calls beyond what finishes within the timeout should be rejected at once")
+    void test_slowEndpoint_limitedToTimeoutBudget() throws Exception {
+        when(aiIntegrationService.detectAnomalies()).thenAnswer(invocation -> blocked());
+
+        CompletableFuture<List<AnomalyResult>> first = aiAsyncService.detectAnomalies();
+        CompletableFuture<List<AnomalyResult>> second = aiAsyncService.detectAnomalies();
+        CompletableFuture<List<AnomalyResult>> third = aiAsyncService.detectAnomalies();
+
+        assertThat(third).isCompletedExceptionally();
+        assertThatThrownBy(third::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AiServiceException.class);
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        // Finished calls give their slots back
+        assertThat(aiAsyncService.detectAnomalies().get(5, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A call cancelled while still queued should give its slot back")
+    void test_cancelledQueuedCall_releasesSlot() throws Exception {
+        when(aiIntegrationService.getReorderSuggestions()).thenAnswer(invocation -> {
+            blocked();
+            return Collections.<ReorderSuggestion>emptyList();
+        });
+
+        // Two calls running on the threads, six queued
+        List<CompletableFuture<List<ReorderSuggestion>>> calls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            calls.add(aiAsyncService.getReorderSuggestions());
+        }
+        assertThat(aiAsyncService.getReorderSuggestions()).isCompletedExceptionally();
+
+        // What the controller does on timeout
+        calls.get(7).cancel(false);
+
+        assertThat(aiAsyncService.getReorderSuggestions()).isNotDone();
+    }
+}
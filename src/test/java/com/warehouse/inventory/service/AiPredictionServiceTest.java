@@ -0,0 +1,183 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.AnomalyResult;
+import com.warehouse.inventory.dto.response.ForecastResponse;
+import com.warehouse.inventory.dto.response.ReorderSuggestion;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.PredictionType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that AI results are stored and served back while valid. The AI service is pointed
+ * at an unused port, so anything returned must come from the store or the local fallback.
+ */
+@DisplayName("AiPredictionService Tests")
+class AiPredictionServiceTest extends PostgresIntegrationTest {
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("ai.service.url", () -> "http://localhost:1");
+    }
+
+    @Autowired
+    private AiPredictionService aiPredictionService;
+
+    @Autowired
+    private AiIntegrationService aiIntegrationService;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ProductStockTotalRepository productStockTotalRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @SpyBean
+    private AiServiceClient aiServiceClient;
+
+    private Product product;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        product = productRepository.save(Product.builder().sku("AP-" + suffix).name("Prediction " + suffix).build());
+        warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("AP-" + suffix).name("Prediction").type(WarehouseType.MAIN).build());
+        receive(10);
+    }
+
+    @Test
+    @DisplayName("Stored forecast should be served until the product moves")
+    void test_storedForecast_servedForCurrentVersionOnly() {
+        long version = productStockTotalRepository.findMovementVersion(product.getId()).orElse(0L);
+        aiPredictionService.saveForecast(ForecastResponse.builder()
+                .productId(product.getId())
+                .productName(product.getName())
+                .currentStock(10)
+                .confidence(0.8)
+                .recommendation("stored")
+                .build(), version);
+
+        assertThat(aiIntegrationService.getForecast(product.getId()).getRecommendation()).isEqualTo("stored");
+
+        receive(5);
+
+        assertThat(aiPredictionService.findValidForecast(product.getId(), version + 1)).isEmpty();
+        // No outbound demand: forecast locally without asking the AI service
+        ForecastResponse local = aiIntegrationService.getForecast(product.getId());
+        assertThat(local.getSource()).isEqualTo(LocalForecastService.SOURCE);
+        assertThat(local.getCurrentStock()).isEqualTo(15);
+        assertThat(local.getPredictions()).hasSize(30).allMatch(p -> p.getPredictedDemand() == 0);
+    }
+
+    @Test
+    @DisplayName("Unreachable AI service should fall back to a local forecast that is not stored")
+    void test_forecast_fallsBackToLocal() {
+        stockMovementService.processMovement(StockMovementRequest.builder()
+                .productId(product.getId())
+                .fromWarehouseId(warehouse.getId())
+                .type(MovementType.OUT)
+                .quantity(4)
+                .build());
+        long version = productStockTotalRepository.findMovementVersion(product.getId()).orElse(0L);
+
+        ForecastResponse forecast = aiIntegrationService.getForecast(product.getId());
+
+        assertThat(forecast.getSource()).isEqualTo(LocalForecastService.SOURCE);
+        assertThat(forecast.getCurrentStock()).isEqualTo(6);
+        assertThat(forecast.getPredictions()).hasSize(30);
+        assertThat(forecast.getRecommendation()).isNotBlank();
+        assertThat(aiPredictionService.findValidForecast(product.getId(), version)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Latest anomaly run should be served back and skip unknown products")
+    void test_anomalyRun_servedBack() {
+        aiPredictionService.saveRun(PredictionType.ANOMALY, null, Arrays.asList(
+                        AnomalyResult.builder().productId(product.getId()).anomalyType("SPIKE").score(0.9).build(),
+                        AnomalyResult.builder().productId(-1L).anomalyType("SPIKE").score(0.5).build()),
+                AnomalyResult::getProductId, AnomalyResult::getScore);
+
+        assertThat(aiIntegrationService.detectAnomalies())
+                .extracting(AnomalyResult::getProductId)
+                .containsExactly(product.getId());
+    }
+
+    @Test
+    @DisplayName("An anomaly run that found nothing should be served without calling the AI service")
+    void test_emptyAnomalyRun_served() {
+        aiPredictionService.saveRun(PredictionType.ANOMALY, null, Collections.<AnomalyResult>emptyList(),
+                AnomalyResult::getProductId, AnomalyResult::getScore);
+
+        assertThat(aiIntegrationService.detectAnomalies()).isEmpty();
+        verify(aiServiceClient, never()).post(any(), any(), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @DisplayName("A reorder run should be served for the low products it was asked about, even without suggestions")
+    void test_reorderRun_servedWhileItCoversLowProducts() {
+        product.setMinStockLevel(20);
+        productRepository.saveAndFlush(product);
+        // The stock write path flags the product as low
+        receive(1);
+        Set<Long> lowStockIds = productService.findLowStock().stream().map(Product::getId).collect(Collectors.toSet());
+        assertThat(lowStockIds).contains(product.getId());
+
+        aiPredictionService.saveRun(PredictionType.REORDER, lowStockIds, Collections.<ReorderSuggestion>emptyList(),
+                ReorderSuggestion::getProductId, s -> null);
+
+        assertThat(aiIntegrationService.getReorderSuggestions()).isEmpty();
+        verify(aiServiceClient, never()).post(any(), any(), any(ParameterizedTypeReference.class));
+
+        // A run that was not asked about every low product is not served
+        aiPredictionService.saveRun(PredictionType.REORDER, Set.of(-1L), Collections.<ReorderSuggestion>emptyList(),
+                ReorderSuggestion::getProductId, s -> null);
+
+        aiIntegrationService.getReorderSuggestions();
+        verify(aiServiceClient).post(any(), any(), any(ParameterizedTypeReference.class));
+    }
+
+    private void receive(int quantity) {
+        stockMovementService.processMovement(StockMovementRequest.builder()
+                .productId(product.getId())
+                .toWarehouseId(warehouse.getId())
+                .type(MovementType.IN)
+                .quantity(quantity)
+                .build());
+    }
+}
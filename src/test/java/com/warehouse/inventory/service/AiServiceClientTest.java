@@ -0,0 +1,151 @@
+package com.warehouse.inventory.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AiServiceClient Unit Tests")
+class AiServiceClientTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch arrived = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private AiServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/ai/reorder", exchange -> respond(exchange, 500, "{}"));
+        server.createContext("/api/ai/query", exchange -> {
+            arrived.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"answer\":\"ok\"}");
+        });
+        server.start();
+
+        httpClient = HttpClients.createDefault();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("ai.client.anomaly.timeout-ms", "200");
+        client = new AiServiceClient(new RestTemplateBuilder(), httpClient, circuitBreakerRegistry,
+                bulkheadRegistry, environment);
+        ReflectionTestUtils.setField(client, "aiServiceUrl", "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        server.stop(0);
+        httpClient.close();
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        requests.incrementAndGet();
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    @Test
+    @DisplayName("Failing endpoint should open its breaker and stop reaching the service")
+    void test_failures_openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.post(AiServiceClient.Endpoint.REORDER, Collections.emptyMap(), String.class))
+                    .isInstanceOf(RestClientException.class);
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("ai-reorder").getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> client.post(AiServiceClient.Endpoint.REORDER, Collections.emptyMap(), String.class))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(requests.get()).isEqualTo(4);
+        assertThat(circuitBreakerRegistry.circuitBreaker("ai-query").getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Call beyond the bulkhead limit should be rejected without waiting")
+    void test_bulkheadFull_rejectsAtOnce() throws Exception {
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() ->
+                client.post(AiServiceClient.Endpoint.QUERY, Collections.emptyMap(), String.class));
+        // The first call holds the only slot until released
+        assertThat(arrived.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.post(AiServiceClient.Endpoint.REORDER, Collections.emptyMap(), String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("concurrent");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).contains("ok");
+    }
+
+    @Test
+    @DisplayName("Endpoint timeout should cut a slow call short")
+    void test_endpointTimeout() {
+        server.createContext("/api/ai/anomaly", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "[]");
+        });
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.post(AiServiceClient.Endpoint.ANOMALY, Collections.emptyMap(), String.class))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1500);
+    }
+}
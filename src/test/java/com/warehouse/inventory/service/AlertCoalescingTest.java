@@ -0,0 +1,83 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.entity.Alert;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.AlertSeverity;
+import com.warehouse.inventory.enums.AlertType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.AlertRepository;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that repeats of an open alert are folded into it.
+ */
+@DisplayName("Alert coalescing Tests")
+class AlertCoalescingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    private Product product;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("AC-" + suffix).name("Coalescing").type(WarehouseType.MAIN).build());
+        product = productRepository.save(Product.builder()
+                .sku("AC-" + suffix).name("Coalescing " + suffix).build());
+    }
+
+    @Test
+    @DisplayName("Repeats should update the one open alert until it is resolved")
+    void test_repeatsCoalesceUntilResolved() {
+        assertThat(alertService.createAlert(product, warehouse, AlertType.LOW_STOCK, "low 5", AlertSeverity.HIGH)).isTrue();
+        assertThat(alertService.createAlert(product, warehouse, AlertType.LOW_STOCK, "low 3", AlertSeverity.HIGH)).isFalse();
+        assertThat(alertService.createAlert(product, warehouse, AlertType.LOW_STOCK, "low 0", AlertSeverity.CRITICAL)).isFalse();
+
+        List<Alert> open = openAlerts(AlertType.LOW_STOCK);
+        assertThat(open).hasSize(1);
+        Alert alert = open.get(0);
+        assertThat(alert.getOccurrenceCount()).isEqualTo(3);
+        assertThat(alert.getMessage()).isEqualTo("low 0");
+        assertThat(alert.getSeverity()).isEqualTo(AlertSeverity.CRITICAL);
+        assertThat(alert.getLastSeenAt()).isAfterOrEqualTo(alert.getCreatedAt());
+
+        // Another type for the same product and warehouse is a separate alert
+        assertThat(alertService.createAlert(product, warehouse, AlertType.ANOMALY, "odd", AlertSeverity.MEDIUM)).isTrue();
+
+        alertService.resolve(alert.getId(), "tester");
+        assertThat(alertService.createAlert(product, warehouse, AlertType.LOW_STOCK, "low 2", AlertSeverity.HIGH)).isTrue();
+        assertThat(openAlerts(AlertType.LOW_STOCK)).hasSize(1)
+                .allSatisfy(a -> assertThat(a.getOccurrenceCount()).isEqualTo(1));
+    }
+
+    private List<Alert> openAlerts(AlertType type) {
+        return alertRepository.findByTypeAndResolvedFalse(type).stream()
+                .filter(a -> a.getProduct() != null && a.getProduct().getId().equals(product.getId()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,96 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.entity.ProductStockTotal;
+import com.warehouse.inventory.enums.AlertSeverity;
+import com.warehouse.inventory.enums.AlertType;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.event.StockMovementsEvent;
+import com.warehouse.inventory.repository.AlertDraft;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AlertPipeline Unit Tests")
+class AlertPipelineTest {
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private MovementAnomalyDetector movementAnomalyDetector;
+
+    @Mock
+    private ProductStockTotalRepository productStockTotalRepository;
+
+    private AlertPipeline alertPipeline;
+
+    @BeforeEach
+    void setUp() {
+        alertPipeline = new AlertPipeline(alertService, movementAnomalyDetector, productStockTotalRepository,
+                new SimpleMeterRegistry(), 100);
+        ReflectionTestUtils.setField(alertPipeline, "batchSize", 50);
+        lenient().when(movementAnomalyDetector.check(any())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        alertPipeline.shutdown();
+    }
+
+    private static StockMovementsEvent.Movement out(Long productId, int quantity) {
+        return new StockMovementsEvent.Movement(productId, "Product " + productId, 10, 1L, MovementType.OUT, quantity);
+    }
+
+    @Test
+    @DisplayName("Movements of a low product should become one alert carrying every occurrence")
+    void test_lowStock_coalescedPerBatch() {
+        when(productStockTotalRepository.findByProductIdIn(any())).thenReturn(Arrays.asList(
+                ProductStockTotal.builder().productId(1L).totalQuantity(0).lowStock(true).build(),
+                ProductStockTotal.builder().productId(2L).totalQuantity(50).lowStock(false).build()));
+
+        alertPipeline.onStockMoved(new StockMovementsEvent(Arrays.asList(out(1L, 5), out(2L, 1), out(1L, 3))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AlertDraft>> drafts = ArgumentCaptor.forClass(List.class);
+        verify(alertService, timeout(2000)).createAlerts(drafts.capture());
+        assertThat(drafts.getValue()).hasSize(1);
+        AlertDraft draft = drafts.getValue().get(0);
+        assertThat(draft.getProductId()).isEqualTo(1L);
+        assertThat(draft.getType()).isEqualTo(AlertType.LOW_STOCK);
+        assertThat(draft.getSeverity()).isEqualTo(AlertSeverity.CRITICAL);
+        assertThat(draft.getOccurrences()).isEqualTo(2);
+        assertThat(draft.getMessage()).contains("Product 1").contains("0");
+    }
+
+    @Test
+    @DisplayName("Anomaly drafts from the detector should be written with the batch")
+    void test_anomaly_writtenWithBatch() {
+        AlertDraft anomaly = new AlertDraft(3L, 1L, AlertType.ANOMALY, "odd", AlertSeverity.MEDIUM, 1);
+        StockMovementsEvent.Movement movement = out(3L, 500);
+        when(movementAnomalyDetector.check(movement)).thenReturn(Optional.of(anomaly));
+
+        alertPipeline.onStockMoved(new StockMovementsEvent(List.of(movement)));
+
+        verify(alertService, timeout(2000)).createAlerts(List.of(anomaly));
+    }
+}
@@ -0,0 +1,125 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.entity.Category;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.CategoryRepository;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import com.warehouse.inventory.repository.projection.CategoryTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the category aggregates, including the recursive roll-up to root categories.
+ */
+@DisplayName("CategoryBreakdownService Tests")
+class CategoryBreakdownServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CategoryBreakdownService categoryBreakdownService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    private String suffix;
+    private Warehouse warehouse;
+    private Category electronics;
+    private Category phones;
+    private Category smartphones;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("CB-" + suffix).name("Category Breakdown").type(WarehouseType.MAIN).build());
+
+        electronics = category("Electronics", null);
+        phones = category("Phones", electronics);
+        smartphones = category("Smartphones", phones);
+        food = category("Food", null);
+
+        product(electronics, true, 10);
+        product(phones, true, 5);
+        product(phones, true, 0);
+        product(smartphones, true, 7);
+        product(smartphones, true, 3);
+        product(smartphones, false, 100);
+        product(food, true, 2);
+    }
+
+    @Test
+    @DisplayName("Per-category breakdown should count only the category's own active products")
+    void test_breakdown_perCategory() {
+        Map<Long, CategoryTotal> totals = byId(categoryBreakdownService.getBreakdown(false));
+
+        assertThat(totals.get(electronics.getId()).getProductCount()).isEqualTo(1);
+        assertThat(totals.get(phones.getId()).getProductCount()).isEqualTo(2);
+        assertThat(totals.get(smartphones.getId()).getProductCount()).isEqualTo(2);
+        assertThat(totals.get(smartphones.getId()).getTotalQuantity()).isEqualTo(10);
+        assertThat(totals.get(food.getId()).getTotalQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Roll-up should fold every level of sub-categories into the root")
+    void test_breakdown_rollsUpToRoot() {
+        Map<Long, CategoryTotal> totals = byId(categoryBreakdownService.getBreakdown(true));
+
+        assertThat(totals).doesNotContainKeys(phones.getId(), smartphones.getId());
+        assertThat(totals.get(electronics.getId()).getProductCount()).isEqualTo(5);
+        assertThat(totals.get(electronics.getId()).getTotalQuantity()).isEqualTo(25);
+        assertThat(totals.get(food.getId()).getProductCount()).isEqualTo(1);
+        assertThat(categoryBreakdownService.getRootProductCounts())
+                .containsEntry("Electronics " + suffix, 5L)
+                .containsEntry("Food " + suffix, 1L);
+    }
+
+    private Map<Long, CategoryTotal> byId(List<CategoryTotal> totals) {
+        return totals.stream().collect(Collectors.toMap(CategoryTotal::getCategoryId, Function.identity()));
+    }
+
+    private Category category(String name, Category parent) {
+        return categoryRepository.save(Category.builder().name(name + " " + suffix).parentCategory(parent).build());
+    }
+
+    private void product(Category category, boolean active, int quantity) {
+        Product product = productRepository.save(Product.builder()
+                .sku("CB-" + suffix + "-" + UUID.randomUUID().toString().substring(0, 6))
+                .name("CB " + suffix)
+                .category(category)
+                .active(active)
+                .build());
+        if (quantity > 0) {
+            stockMovementService.processMovement(StockMovementRequest.builder()
+                    .productId(product.getId())
+                    .toWarehouseId(warehouse.getId())
+                    .type(MovementType.IN)
+                    .quantity(quantity)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.warehouse.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DashboardAggregator Unit Tests")
+class DashboardAggregatorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new DashboardAggregator(transactionManager, meterRegistry, 4, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        aggregator.shutdown();
+    }
+
+    private long sleepyCount() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 42L;
+    }
+
+    @Test
+    @DisplayName("Widgets should run concurrently rather than one after another")
+    void test_partsRunConcurrently() {
+        DashboardAggregator.Aggregation aggregation = aggregator.start();
+        CountDownLatch allStarted = new CountDownLatch(3);
+        DashboardAggregator.Part<?>[] parts = new DashboardAggregator.Part<?>[3];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = aggregation.submit("widget" + i, () -> {
+                allStarted.countDown();
+                try {
+                    // Completes only if all three are in flight at once
+                    return allStarted.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }, false);
+        }
+
+        for (DashboardAggregator.Part<?> part : parts) {
+            assertThat(part.get()).isEqualTo(true);
+        }
+        assertThat(aggregation.getDegraded()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Failing or slow widget should fall back alone and be reported as degraded")
+    void test_failureAndTimeout_degradeAlone() {
+        DashboardAggregator.Aggregation aggregation = aggregator.start();
+        DashboardAggregator.Part<Long> healthy = aggregation.submit("totalProducts", () -> 7L, 0L);
+        DashboardAggregator.Part<Long> failing = aggregation.submit("pendingOrders", () -> {
+            throw new IllegalStateException("boom");
+        }, 0L);
+        DashboardAggregator.Part<Long> slow = aggregation.submit("lowStockCount", this::sleepyCount, -1L);
+
+        long start = System.nanoTime();
+        assertThat(healthy.get()).isEqualTo(7L);
+        assertThat(failing.get()).isZero();
+        assertThat(slow.get()).isEqualTo(-1L);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+
+        assertThat(aggregation.getDegraded()).containsExactly("pendingOrders", "lowStockCount");
+    }
+
+    @Test
+    @DisplayName("Each widget should be timed once, tagged with its outcome")
+    void test_widgetTimerTaggedByOutcome() throws InterruptedException {
+        DashboardAggregator.Aggregation aggregation = aggregator.start();
+        aggregation.submit("totalProducts", () -> 7L, 0L).get();
+        aggregation.submit("pendingOrders", () -> {
+            throw new IllegalStateException("boom");
+        }, 0L).get();
+        aggregation.submit("lowStockCount", this::sleepyCount, 0L).get();
+        // The slow query finishing later must not be counted a second time
+        release.countDown();
+        Thread.sleep(100);
+
+        assertThat(meterRegistry.get("dashboard.widget").tags("widget", "totalProducts", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("dashboard.widget").tags("widget", "pendingOrders", "outcome", "failure")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("dashboard.widget").tags("widget", "lowStockCount", "outcome", "timeout")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("dashboard.widget").tags("widget", "lowStockCount", "outcome", "success")
+                .timer()).isNull();
+    }
+}
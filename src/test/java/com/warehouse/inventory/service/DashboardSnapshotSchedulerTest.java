@@ -0,0 +1,212 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.DashboardResponse;
+import com.warehouse.inventory.enums.OrderStatus;
+import com.warehouse.inventory.event.AlertChangedEvent;
+import com.warehouse.inventory.event.PurchaseOrderChangedEvent;
+import com.warehouse.inventory.event.StockChangedEvent;
+import com.warehouse.inventory.repository.DashboardStatRepository;
+import com.warehouse.inventory.repository.StockMovementRepository;
+import com.warehouse.inventory.repository.WarehouseStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the snapshot scheduler by hand against the real cache annotations of
+ * {@link DashboardService}. Every build reports a higher product count, so the cached
+ * snapshot tells which build it came from.
+ */
+@SpringJUnitConfig(DashboardSnapshotSchedulerTest.Config.class)
+@DisplayName("DashboardSnapshotScheduler Tests")
+class DashboardSnapshotSchedulerTest {
+
+    @Configuration
+    @EnableCaching
+    @EnableTransactionManagement
+    @Import({DashboardService.class, DashboardSnapshotScheduler.class})
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(DashboardService.CACHE);
+        }
+
+        // Commits nothing, but runs the synchronizations the after-commit listeners hang on
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        DashboardAggregator dashboardAggregator(PlatformTransactionManager transactionManager) {
+            return new DashboardAggregator(transactionManager, new SimpleMeterRegistry(), 4, 1000);
+        }
+    }
+
+    @MockBean
+    private ProductService productService;
+    @MockBean
+    private CategoryService categoryService;
+    @MockBean
+    private WarehouseService warehouseService;
+    @MockBean
+    private AlertService alertService;
+    @MockBean
+    private PurchaseOrderService purchaseOrderService;
+    @MockBean
+    private StockMovementService stockMovementService;
+    @MockBean
+    private CategoryBreakdownService categoryBreakdownService;
+    @MockBean
+    private ProductRankingService productRankingService;
+    @MockBean
+    private WarehouseStockRepository warehouseStockRepository;
+    @MockBean
+    private StockMovementRepository stockMovementRepository;
+    @MockBean
+    private DashboardStatRepository dashboardStatRepository;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardSnapshotScheduler scheduler;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLong builds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        cache().clear();
+        when(productService.count()).thenAnswer(invocation -> builds.incrementAndGet());
+        when(stockMovementService.findPage(any(), anyInt())).thenReturn(CursorPage.of(List.of(), 10, m -> null));
+        // The context and its scheduler are shared between tests, so start from a fresh build
+        eventPublisher.publishEvent(new StockChangedEvent(Set.of(1L)));
+        scheduler.refreshIfStale();
+        assertThat(cachedBuild()).isEqualTo(1L);
+    }
+
+    static Stream<Object> changeEvents() {
+        return Stream.of(
+                new StockChangedEvent(Set.of(1L)),
+                new PurchaseOrderChangedEvent(1L, OrderStatus.PENDING),
+                new AlertChangedEvent(1L, false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("changeEvents")
+    @DisplayName("A committed change should mark the snapshot dirty and the next tick should replace it")
+    void test_committedChange_rebuildsOnNextTick(Object event) {
+        scheduler.refreshIfStale();
+        assertThat(builds.get()).as("clean and not expired").isEqualTo(1L);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event);
+            scheduler.refreshIfStale();
+            assertThat(builds.get()).as("not committed yet").isEqualTo(1L);
+        });
+
+        scheduler.refreshIfStale();
+        assertThat(cachedBuild()).isEqualTo(2L);
+        assertThat(dashboardService.getDashboardData().getTotalProducts()).isEqualTo(2L);
+
+        scheduler.refreshIfStale();
+        assertThat(builds.get()).as("one rebuild per change").isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("A degraded build should never overwrite the complete snapshot and should be retried")
+    void test_degradedBuild_keepsCompleteSnapshot() {
+        when(stockMovementService.findPage(any(), anyInt())).thenThrow(new IllegalStateException("database down"));
+        eventPublisher.publishEvent(new StockChangedEvent(Set.of(1L)));
+
+        scheduler.refreshIfStale();
+        assertThat(builds.get()).isEqualTo(2L);
+        assertThat(cachedBuild()).isEqualTo(1L);
+        DashboardResponse served = dashboardService.getDashboardData();
+        assertThat(served.isDegraded()).isFalse();
+        assertThat(served.getTotalProducts()).isEqualTo(1L);
+
+        // Still dirty, so the next tick tries again without a new change
+        doReturn(CursorPage.of(List.of(), 10, m -> null)).when(stockMovementService).findPage(any(), anyInt());
+        scheduler.refreshIfStale();
+        assertThat(cachedBuild()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("A degraded build on a cold cache should be served but not cached")
+    void test_degradedBuild_notCachedOnColdCache() {
+        cache().clear();
+        when(stockMovementService.findPage(any(), anyInt())).thenThrow(new IllegalStateException("database down"));
+
+        assertThat(dashboardService.getDashboardData().isDegraded()).isTrue();
+        assertThat(cache().get("snapshot")).isNull();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(DashboardService.CACHE);
+    }
+
+    private Long cachedBuild() {
+        DashboardResponse cached = cache().get("snapshot", DashboardResponse.class);
+        return cached != null ? cached.getTotalProducts() : null;
+    }
+}
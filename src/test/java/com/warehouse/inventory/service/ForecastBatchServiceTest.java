@@ -0,0 +1,226 @@
+package com.warehouse.inventory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.ForecastResponse;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the nightly forecast batch against a stub of the AI service's batch endpoint and checks
+ * that every product is sent in chunks as a gap-filled daily series and its forecast stored
+ * for its movement version.
+ */
+@DisplayName("ForecastBatchService Tests")
+class ForecastBatchServiceTest extends PostgresIntegrationTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final AtomicInteger REQUESTS = new AtomicInteger();
+    private static final Map<Long, JsonNode> SENT = new ConcurrentHashMap<>();
+    private static HttpServer server;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("ai.forecast.batch.chunk-size", () -> 5);
+        registry.add("ai.forecast.batch.parallelism", () -> 2);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/ai/forecast/batch", exchange -> {
+            REQUESTS.incrementAndGet();
+            JsonNode body = MAPPER.readTree(exchange.getRequestBody());
+            ArrayNode results = MAPPER.createArrayNode();
+            for (JsonNode item : body.get("items")) {
+                results.add(forecast(item, "batch"));
+            }
+            respond(exchange, MAPPER.createObjectNode().set("results", results));
+        });
+        server.createContext("/api/ai/forecast", exchange ->
+                respond(exchange, forecast(MAPPER.readTree(exchange.getRequestBody()), "single")));
+        server.start();
+        registry.add("ai.service.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    private static ObjectNode forecast(JsonNode item, String recommendation) {
+        SENT.put(item.get("product_id").asLong(), item);
+        ObjectNode result = MAPPER.createObjectNode();
+        result.put("product_id", item.get("product_id").asLong());
+        result.put("product_name", item.get("product_name").asText());
+        result.put("confidence", 0.5);
+        result.put("recommendation", recommendation);
+        result.putArray("predictions").addObject().put("date", "2030-01-01").put("predicted_demand", 2.0);
+        return result;
+    }
+
+    private static void respond(HttpExchange exchange, JsonNode body) throws IOException {
+        byte[] response = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Autowired
+    private ForecastBatchService forecastBatchService;
+
+    @Autowired
+    private AiIntegrationService aiIntegrationService;
+
+    @Autowired
+    private AiPredictionService aiPredictionService;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ProductStockTotalRepository productStockTotalRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Batch should send daily demand in chunks and store forecasts for the current version")
+    void test_runBatch_storesForecasts() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("FB-" + suffix).name("Forecast Batch").type(WarehouseType.MAIN).build());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .sku("FB-" + suffix + "-" + i).name("Forecast " + suffix + " " + i).build());
+            move(product, warehouse, MovementType.IN, 50);
+            move(product, warehouse, MovementType.OUT, i + 1);
+            move(product, warehouse, MovementType.OUT, 2);
+            products.add(product);
+        }
+        Product idle = productRepository.save(Product.builder()
+                .sku("FB-" + suffix + "-idle").name("Forecast " + suffix + " idle").build());
+
+        forecastBatchService.runBatch();
+
+        assertThat(REQUESTS.get()).isGreaterThan(1);
+        JsonNode sent = SENT.get(products.get(1).getId());
+        assertThat(sent.get("forecast_days").asInt()).isEqualTo(30);
+        assertGapFilledToday(sent, 50, 4);
+        assertGapFilledToday(SENT.get(idle.getId()), 0, 0);
+
+        for (Product product : products) {
+            long version = productStockTotalRepository.findMovementVersion(product.getId()).orElse(0L);
+            assertThat(aiPredictionService.findValidForecast(product.getId(), version)).isPresent();
+        }
+        ForecastResponse forecast = aiIntegrationService.getForecast(products.get(0).getId());
+        assertThat(forecast.getRecommendation()).isEqualTo("batch");
+        assertThat(forecast.getCurrentStock()).isEqualTo(47);
+        assertThat(forecastBatchService.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Batch should not run while another node holds the run lock")
+    void test_runBatch_skippedWhileLocked() throws SQLException {
+        Product product = productRepository.save(Product.builder()
+                .sku("FL-" + UUID.randomUUID().toString().substring(0, 8)).name("Forecast locked").build());
+        SENT.remove(product.getId());
+
+        try (Connection otherNode = dataSource.getConnection();
+             PreparedStatement lock = otherNode.prepareStatement("SELECT pg_advisory_lock(?)")) {
+            lock.setLong(1, ForecastBatchService.RUN_LOCK_KEY);
+            lock.execute();
+            forecastBatchService.runBatch();
+            assertThat(SENT).doesNotContainKey(product.getId());
+            // Ending the session releases the lock
+        }
+
+        forecastBatchService.runBatch();
+        assertThat(SENT).containsKey(product.getId());
+        assertThat(forecastBatchService.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Single forecast should send the same gap-filled daily series")
+    void test_getForecast_sendsDailySeries() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("FS-" + suffix).name("Forecast Single").type(WarehouseType.MAIN).build());
+        Product product = productRepository.save(Product.builder()
+                .sku("FS-" + suffix).name("Forecast " + suffix).build());
+        move(product, warehouse, MovementType.IN, 20);
+        for (int i = 0; i < 5; i++) {
+            move(product, warehouse, MovementType.OUT, 3);
+        }
+
+        ForecastResponse forecast = aiIntegrationService.getForecast(product.getId());
+
+        assertThat(forecast.getRecommendation()).isEqualTo("single");
+        assertThat(forecast.getCurrentStock()).isEqualTo(5);
+        assertGapFilledToday(SENT.get(product.getId()), 20, 15);
+    }
+
+    // Whole lookback window, zeros except today
+    private static void assertGapFilledToday(JsonNode item, int in, int out) {
+        JsonNode days = item.get("historical_data");
+        assertThat(days).hasSize(180);
+        JsonNode today = days.get(179);
+        assertThat(today.get("date").asText()).isEqualTo(LocalDate.now().toString());
+        assertThat(today.get("quantity_in").asInt()).isEqualTo(in);
+        assertThat(today.get("quantity_out").asInt()).isEqualTo(out);
+        assertThat(days.get(0).get("quantity_out").asInt()).isZero();
+    }
+
+    private void move(Product product, Warehouse warehouse, MovementType type, int quantity) {
+        stockMovementService.processMovement(StockMovementRequest.builder()
+                .productId(product.getId())
+                .toWarehouseId(type == MovementType.IN ? warehouse.getId() : null)
+                .fromWarehouseId(type == MovementType.OUT ? warehouse.getId() : null)
+                .type(type)
+                .quantity(quantity)
+                .build());
+    }
+}
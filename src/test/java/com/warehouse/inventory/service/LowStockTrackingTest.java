@@ -0,0 +1,111 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.ProductRequest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.entity.Category;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.CategoryRepository;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the low-stock flag follows the product total across the single and batch
+ * movement paths and product edits.
+ */
+@DisplayName("Low stock tracking Tests")
+class LowStockTrackingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private Warehouse warehouse;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        category = categoryRepository.save(Category.builder().name("Low stock " + suffix).build());
+        warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("LS-" + suffix).name("Low stock").type(WarehouseType.MAIN).build());
+        product = productRepository.save(Product.builder()
+                .sku("LS-" + suffix).name("Low stock " + suffix).category(category)
+                .minStockLevel(10).active(true).build());
+    }
+
+    @Test
+    @DisplayName("Movements should flag the product as it crosses its minimum either way")
+    void test_movementsCrossMinimum() {
+        move(MovementType.IN, 5);
+        assertThat(isLow()).isTrue();
+
+        move(MovementType.IN, 10);
+        assertThat(isLow()).isFalse();
+
+        stockMovementService.processBatch(Collections.singletonList(request(MovementType.OUT, 6)));
+        assertThat(isLow()).isTrue();
+        assertThat(productService.countLowStock()).isEqualTo(
+                productService.findLowStock().size());
+    }
+
+    @Test
+    @DisplayName("Lowering the minimum or deactivating the product should clear the flag")
+    void test_productEditsRefreshFlag() {
+        move(MovementType.IN, 8);
+        assertThat(isLow()).isTrue();
+
+        productService.update(product.getId(), ProductRequest.builder()
+                .name(product.getName()).categoryId(category.getId()).minStockLevel(5).build());
+        assertThat(isLow()).isFalse();
+
+        productService.update(product.getId(), ProductRequest.builder()
+                .name(product.getName()).categoryId(category.getId()).minStockLevel(20).build());
+        assertThat(isLow()).isTrue();
+
+        productService.delete(product.getId());
+        assertThat(isLow()).isFalse();
+    }
+
+    private boolean isLow() {
+        return productService.findLowStock().stream().anyMatch(p -> p.getId().equals(product.getId()));
+    }
+
+    private void move(MovementType type, int quantity) {
+        stockMovementService.processMovement(request(type, quantity));
+    }
+
+    private StockMovementRequest request(MovementType type, int quantity) {
+        return StockMovementRequest.builder()
+                .productId(product.getId())
+                .toWarehouseId(type == MovementType.IN ? warehouse.getId() : null)
+                .fromWarehouseId(type == MovementType.OUT ? warehouse.getId() : null)
+                .type(type)
+                .quantity(quantity)
+                .build();
+    }
+}
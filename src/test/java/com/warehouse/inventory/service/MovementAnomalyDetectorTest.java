@@ -0,0 +1,87 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.entity.Alert;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.AlertType;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.AlertRepository;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that an outlying movement raises an anomaly alert once it is committed.
+ */
+@DisplayName("MovementAnomalyDetector Tests")
+class MovementAnomalyDetectorTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Test
+    @DisplayName("A movement far above the product's usual quantity should raise an anomaly alert")
+    void test_outlier_raisesAnomalyAlert() throws InterruptedException {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("AD-" + suffix).name("Anomaly").type(WarehouseType.MAIN).build());
+        Product product = productRepository.save(Product.builder()
+                .sku("AD-" + suffix).name("Anomaly " + suffix).build());
+        move(product, warehouse, MovementType.IN, 1000);
+        for (int i = 0; i < 12; i++) {
+            move(product, warehouse, MovementType.OUT, 4 + i % 3);
+        }
+        move(product, warehouse, MovementType.OUT, 60);
+
+        // Alerts are raised after commit, off the request thread
+        List<Alert> alerts = awaitAnomalies(product);
+        assertThat(alerts).hasSize(1);
+        assertThat(alerts.get(0).getMessage()).contains("xuất kho").contains("60");
+    }
+
+    private List<Alert> awaitAnomalies(Product product) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<Alert> alerts = anomalies(product);
+        while (alerts.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            alerts = anomalies(product);
+        }
+        return alerts;
+    }
+
+    private List<Alert> anomalies(Product product) {
+        return alertRepository.findByTypeAndResolvedFalse(AlertType.ANOMALY).stream()
+                .filter(a -> a.getProduct() != null && a.getProduct().getId().equals(product.getId()))
+                .collect(Collectors.toList());
+    }
+
+    private void move(Product product, Warehouse warehouse, MovementType type, int quantity) {
+        stockMovementService.processMovement(StockMovementRequest.builder()
+                .productId(product.getId())
+                .toWarehouseId(type == MovementType.IN ? warehouse.getId() : null)
+                .fromWarehouseId(type == MovementType.OUT ? warehouse.getId() : null)
+                .type(type)
+                .quantity(quantity)
+                .build());
+    }
+}
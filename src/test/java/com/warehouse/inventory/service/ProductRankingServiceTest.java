@@ -0,0 +1,163 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.ProductRankingResponse;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.RankingMetric;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the order of each ranking query against PostgreSQL.
+ */
+@DisplayName("ProductRankingService Tests")
+class ProductRankingServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductRankingService productRankingService;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        // The seed data may be present in the first test of a run; rankings only see active products
+        jdbcTemplate.update("UPDATE products SET active = false");
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("RK-" + suffix).name("Ranking").type(WarehouseType.MAIN).build());
+    }
+
+    @Test
+    @DisplayName("Stock metrics should rank by quantity times price and skip products they cannot score")
+    void test_stockMetrics_order() {
+        // stock value / cost value / margin
+        Product a = product("A", "10", "9", 100);   // 1000 / 900 / 100
+        Product b = product("B", "50", "10", 10);   //  500 / 100 / 400
+        Product c = product("C", "5", "1", 300);    // 1500 / 300 / 1200
+        Product d = product("D", "20", null, 40);   //  800 / -   / -
+        product("E", "100", "50", 0);               // no stock
+        Product f = product("F", "1000", "1", 50);
+        f.setActive(false);
+        productRepository.save(f);
+
+        assertThat(rank(RankingMetric.STOCK_VALUE)).containsExactly(c.getId(), a.getId(), d.getId(), b.getId());
+        assertThat(rank(RankingMetric.COST_VALUE)).containsExactly(a.getId(), c.getId(), b.getId());
+        assertThat(rank(RankingMetric.MARGIN)).containsExactly(c.getId(), b.getId(), a.getId());
+
+        ProductRankingResponse top = productRankingService.getTopProducts(RankingMetric.MARGIN, 100).stream()
+                .filter(r -> r.getProductId().equals(c.getId()))
+                .findFirst().orElseThrow();
+        assertThat(top.getTotalQuantity()).isEqualTo(300L);
+        assertThat(top.getScore()).isEqualByComparingTo("1200");
+    }
+
+    @Test
+    @DisplayName("Velocity should rank by quantity shipped within the window")
+    void test_velocity_order() {
+        Product a = product("A", "10", "5", 500);
+        Product b = product("B", "10", "5", 500);
+        Product c = product("C", "10", "5", 500);
+        ship(a, 5);
+        ship(a, 5);
+        ship(b, 30);
+        ship(c, 20);
+        Long old = ship(c, 100);
+        jdbcTemplate.update("UPDATE stock_movements SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(40)), old);
+
+        assertThat(rank(RankingMetric.VELOCITY, 30)).containsExactly(b.getId(), c.getId(), a.getId());
+        assertThat(rank(RankingMetric.VELOCITY, 60)).containsExactly(c.getId(), b.getId(), a.getId());
+    }
+
+    @Test
+    @DisplayName("Limit should default when missing and be clamped to the maximum")
+    void test_limit_clamped() {
+        List<StockMovementRequest> stockIn = new ArrayList<>();
+        for (int i = 0; i < ProductRankingService.MAX_LIMIT + 5; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .sku("RK-" + suffix + "-" + i).name("Ranking " + i).unitPrice(BigDecimal.ONE).build());
+            stockIn.add(stockIn(product, 1));
+        }
+        stockMovementService.processBatch(stockIn);
+
+        assertThat(productRankingService.getTopProducts(RankingMetric.STOCK_VALUE, 3)).hasSize(3);
+        assertThat(productRankingService.getTopProducts(RankingMetric.STOCK_VALUE, null))
+                .hasSize(ProductRankingService.DEFAULT_LIMIT);
+        assertThat(productRankingService.getTopProducts(RankingMetric.STOCK_VALUE, 0))
+                .hasSize(ProductRankingService.DEFAULT_LIMIT);
+        assertThat(productRankingService.getTopProducts(RankingMetric.STOCK_VALUE, 1000))
+                .hasSize(ProductRankingService.MAX_LIMIT);
+    }
+
+    private List<Long> rank(RankingMetric metric) {
+        return rank(metric, null);
+    }
+
+    private List<Long> rank(RankingMetric metric, Integer days) {
+        return productRankingService.getTopProducts(metric, ProductRankingService.MAX_LIMIT, days).stream()
+                .map(ProductRankingResponse::getProductId)
+                .collect(Collectors.toList());
+    }
+
+    private Product product(String name, String unitPrice, String costPrice, int quantity) {
+        Product product = productRepository.save(Product.builder()
+                .sku(name + "-" + suffix).name("Ranking " + name)
+                .unitPrice(new BigDecimal(unitPrice))
+                .costPrice(costPrice != null ? new BigDecimal(costPrice) : null)
+                .build());
+        if (quantity > 0) {
+            stockMovementService.processMovement(stockIn(product, quantity));
+        }
+        return product;
+    }
+
+    private Long ship(Product product, int quantity) {
+        return stockMovementService.processMovement(StockMovementRequest.builder()
+                .productId(product.getId())
+                .fromWarehouseId(warehouse.getId())
+                .type(MovementType.OUT)
+                .quantity(quantity)
+                .build()).getId();
+    }
+
+    private StockMovementRequest stockIn(Product product, int quantity) {
+        return StockMovementRequest.builder()
+                .productId(product.getId())
+                .toWarehouseId(warehouse.getId())
+                .type(MovementType.IN)
+                .quantity(quantity)
+                .build();
+    }
+}
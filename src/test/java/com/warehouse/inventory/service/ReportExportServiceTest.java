@@ -0,0 +1,77 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.enums.ExportFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReportExportService Unit Tests")
+class ReportExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ReportExportService reportExportService;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private void supplierRows(int rows, boolean failAfter) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("name")).thenReturn("Công ty A");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < rows; i++) {
+                handler.processRow(rs);
+            }
+            if (failAfter) {
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("A finished export should carry the header and every row")
+    void test_export_complete() throws Exception {
+        supplierRows(2, false);
+
+        reportExportService.exportSuppliers(ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n"))
+                .hasSize(3)
+                .contains("Công ty A,,,,,0,");
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExportFormat.class)
+    @DisplayName("A query failing mid-export should not leave a file that looks complete")
+    void test_export_failed_writesNoFile(ExportFormat format) throws Exception {
+        supplierRows(2, true);
+
+        assertThatThrownBy(() -> reportExportService.exportSuppliers(format, out))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(out.size()).isZero();
+    }
+}
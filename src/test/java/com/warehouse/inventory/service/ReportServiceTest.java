@@ -0,0 +1,145 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.response.CursorPage;
+import com.warehouse.inventory.dto.response.StockMovementResponse;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.StockMovement;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.StockMovementRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the movement report's per-type totals and its keyset pages against PostgreSQL.
+ */
+@DisplayName("ReportService Tests")
+class ReportServiceTest extends PostgresIntegrationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 10, 0, 0);
+    private static final LocalDateTime END = START.plusDays(1);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+    private Warehouse main;
+    private Warehouse branch;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        product = productRepository.save(Product.builder()
+                .sku("RP-" + suffix).name("Report " + suffix).build());
+        main = warehouseRepository.save(Warehouse.builder()
+                .code("RPM-" + suffix).name("Main").type(WarehouseType.MAIN).build());
+        branch = warehouseRepository.save(Warehouse.builder()
+                .code("RPB-" + suffix).name("Branch").type(WarehouseType.BRANCH).build());
+    }
+
+    @Test
+    @DisplayName("Movement report should total each type in the range and page the rows newest first")
+    void test_movementReport_totalsAndPages() {
+        move(MovementType.IN, 100, START.minusHours(1));
+        Long in1 = move(MovementType.IN, 10, START.plusHours(1));
+        Long out1 = move(MovementType.OUT, 5, START.plusHours(2));
+        // Same timestamp: the page boundary falls between them, so only the id tells them apart
+        Long in2 = move(MovementType.IN, 20, START.plusHours(3));
+        Long in3 = move(MovementType.IN, 30, START.plusHours(3));
+        Long transfer = move(MovementType.TRANSFER, 4, START.plusHours(4));
+        Long adjustment = move(MovementType.ADJUSTMENT, 2, START.plusHours(5));
+        Long out2 = move(MovementType.OUT, 7, START.plusHours(6));
+        move(MovementType.OUT, 100, END.plusHours(1));
+
+        Map<String, Object> first = reportService.getMovementReport(START, END, null, 4);
+
+        assertThat(first).containsKeys("movements", "page", "totalMovements", "totalIn", "totalOut",
+                "totalTransfer", "totalAdjustment", "quantityByType", "startDate", "endDate");
+        assertThat(first.get("totalMovements")).isEqualTo(7L);
+        assertThat(first.get("totalIn")).isEqualTo(3L);
+        assertThat(first.get("totalOut")).isEqualTo(2L);
+        assertThat(first.get("totalTransfer")).isEqualTo(1L);
+        assertThat(first.get("totalAdjustment")).isEqualTo(1L);
+        assertThat(first.get("quantityByType")).isEqualTo(Map.of(
+                MovementType.IN, 60L, MovementType.OUT, 12L,
+                MovementType.TRANSFER, 4L, MovementType.ADJUSTMENT, 2L));
+
+        CursorPage<?> firstPage = (CursorPage<?>) first.get("page");
+        assertThat(ids(first)).containsExactly(out2, adjustment, transfer, in3);
+        assertThat(firstPage.isHasNext()).isTrue();
+
+        Map<String, Object> second = reportService.getMovementReport(START, END, firstPage.getNextCursor(), 4);
+        CursorPage<?> secondPage = (CursorPage<?>) second.get("page");
+        assertThat(ids(second)).containsExactly(in2, out1, in1);
+        assertThat(secondPage.isHasNext()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+        // Totals cover the whole range on every page
+        assertThat(second.get("totalMovements")).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Movement report of an empty range should report zero for every type")
+    void test_movementReport_emptyRange() {
+        move(MovementType.IN, 10, START.minusDays(2));
+
+        Map<String, Object> report = reportService.getMovementReport(START, END, null, null);
+
+        assertThat(report.get("totalMovements")).isEqualTo(0L);
+        assertThat(report.get("totalIn")).isEqualTo(0L);
+        assertThat(report.get("totalOut")).isEqualTo(0L);
+        assertThat(report.get("totalTransfer")).isEqualTo(0L);
+        assertThat(report.get("totalAdjustment")).isEqualTo(0L);
+        assertThat((Map<?, ?>) report.get("quantityByType")).isEmpty();
+        assertThat((List<?>) report.get("movements")).isEmpty();
+        assertThat(((CursorPage<?>) report.get("page")).isHasNext()).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(Map<String, Object> report) {
+        return ((List<StockMovementResponse>) report.get("movements")).stream()
+                .map(StockMovementResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    // created_at is set on insert and not updatable through JPA, so it is backdated in SQL
+    private Long move(MovementType type, int quantity, LocalDateTime createdAt) {
+        StockMovement movement = stockMovementRepository.save(StockMovement.builder()
+                .product(product)
+                .fromWarehouse(type == MovementType.IN ? null : main)
+                .toWarehouse(type == MovementType.IN || type == MovementType.TRANSFER ? branch : null)
+                .type(type)
+                .quantity(quantity)
+                .build());
+        jdbcTemplate.update("UPDATE stock_movements SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(createdAt), movement.getId());
+        return movement.getId();
+    }
+}
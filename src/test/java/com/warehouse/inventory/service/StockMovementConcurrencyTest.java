@@ -0,0 +1,245 @@
+package com.warehouse.inventory.service;
+
+import com.warehouse.inventory.PostgresIntegrationTest;
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.StockMovementBatchResponse;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.enums.WarehouseType;
+import com.warehouse.inventory.exception.InsufficientStockException;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.ProductStockTotalRepository;
+import com.warehouse.inventory.repository.StockMovementRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
+import com.warehouse.inventory.repository.WarehouseStockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for the stock ledger under concurrent writers.
+ */
+@DisplayName("StockMovementService Concurrency Tests")
+class StockMovementConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int WRITERS = 64;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> WRITERS);
+    }
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private WarehouseStockRepository warehouseStockRepository;
+
+    @Autowired
+    private ProductStockTotalRepository productStockTotalRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    private Product product;
+    private Warehouse warehouseA;
+    private Warehouse warehouseB;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        product = productRepository.save(Product.builder()
+                .sku("STRESS-" + suffix)
+                .name("Stress " + suffix)
+                .build());
+        warehouseA = warehouseRepository.save(Warehouse.builder()
+                .code("SA-" + suffix).name("Stress A").type(WarehouseType.MAIN).build());
+        warehouseB = warehouseRepository.save(Warehouse.builder()
+                .code("SB-" + suffix).name("Stress B").type(WarehouseType.MAIN).build());
+    }
+
+    @Test
+    @DisplayName("64 concurrent OUT writers should not lose updates")
+    void test_concurrentOut_noLostUpdates() throws Exception {
+        int perWriter = 20;
+        stockMovementService.processMovement(request(MovementType.IN, null, warehouseA.getId(), 10_000));
+
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(writer -> {
+            for (int i = 0; i < perWriter; i++) {
+                try {
+                    stockMovementService.processMovement(request(MovementType.OUT, warehouseA.getId(), null, 3));
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(failures.get()).isZero();
+        assertThat(quantity(warehouseA)).isEqualTo(10_000 - WRITERS * perWriter * 3);
+        assertTotalMatchesRows();
+        assertThat(stockMovementRepository.findByProductIdOrderByCreatedAtDesc(product.getId()))
+                .hasSize(1 + WRITERS * perWriter);
+    }
+
+    @Test
+    @DisplayName("64 concurrent OUT writers should never oversell")
+    void test_concurrentOut_noOversell() throws Exception {
+        int available = WRITERS / 2;
+        stockMovementService.processMovement(request(MovementType.IN, null, warehouseA.getId(), available));
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(writer -> {
+            try {
+                stockMovementService.processMovement(request(MovementType.OUT, warehouseA.getId(), null, 1));
+                succeeded.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(succeeded.get()).isEqualTo(available);
+        assertThat(rejected.get()).isEqualTo(WRITERS - available);
+        assertThat(quantity(warehouseA)).isZero();
+        assertTotalMatchesRows();
+    }
+
+    @Test
+    @DisplayName("Opposite concurrent transfers should neither deadlock nor lose stock")
+    void test_concurrentTransfers_noDeadlock() throws Exception {
+        stockMovementService.processMovement(request(MovementType.IN, null, warehouseA.getId(), 5_000));
+        stockMovementService.processMovement(request(MovementType.IN, null, warehouseB.getId(), 5_000));
+
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(writer -> {
+            for (int i = 0; i < 10; i++) {
+                boolean forward = (writer + i) % 2 == 0;
+                Long from = forward ? warehouseA.getId() : warehouseB.getId();
+                Long to = forward ? warehouseB.getId() : warehouseA.getId();
+                try {
+                    stockMovementService.processMovement(request(MovementType.TRANSFER, from, to, 7));
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(failures.get()).isZero();
+        assertThat(quantity(warehouseA) + quantity(warehouseB)).isEqualTo(10_000);
+        assertThat(warehouseStockRepository.getTotalStockByProductId(product.getId())).isEqualTo(10_000);
+        assertTotalMatchesRows();
+    }
+
+    @Test
+    @DisplayName("Concurrent batches touching the same rows should neither deadlock nor lose stock")
+    void test_concurrentBatches_noDeadlock() throws Exception {
+        stockMovementService.processMovement(request(MovementType.IN, null, warehouseA.getId(), 5_000));
+        stockMovementService.processMovement(request(MovementType.IN, null, warehouseB.getId(), 5_000));
+
+        AtomicInteger failedItems = new AtomicInteger();
+        runConcurrently(writer -> {
+            boolean forward = writer % 2 == 0;
+            Long from = forward ? warehouseA.getId() : warehouseB.getId();
+            Long to = forward ? warehouseB.getId() : warehouseA.getId();
+            List<StockMovementRequest> batch = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                batch.add(request(MovementType.TRANSFER, from, to, 2));
+                batch.add(request(MovementType.OUT, to, null, 1));
+            }
+            failedItems.addAndGet(stockMovementService.processBatch(batch).getFailed());
+        });
+
+        assertThat(failedItems.get()).isZero();
+        assertThat(quantity(warehouseA) + quantity(warehouseB)).isEqualTo(10_000 - WRITERS * 25);
+        assertThat(stockMovementRepository.findByProductIdOrderByCreatedAtDesc(product.getId()))
+                .hasSize(2 + WRITERS * 50);
+        assertTotalMatchesRows();
+    }
+
+    @Test
+    @DisplayName("A batch OUT from an empty warehouse should fail without leaving a stock row")
+    void test_batchFailedOut_leavesNoEmptyRow() {
+        StockMovementBatchResponse response = stockMovementService.processBatch(Arrays.asList(
+                request(MovementType.OUT, warehouseA.getId(), null, 5),
+                request(MovementType.IN, null, warehouseB.getId(), 4)));
+
+        assertThat(response.getResults()).extracting(StockMovementBatchResponse.ItemResult::isSuccess)
+                .containsExactly(false, true);
+        assertThat(warehouseStockRepository.findQuantity(warehouseA.getId(), product.getId())).isEmpty();
+        assertThat(quantity(warehouseB)).isEqualTo(4);
+        assertTotalMatchesRows();
+    }
+
+    private void runConcurrently(Writer writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                int index = i;
+                Callable<Void> task = () -> {
+                    start.await();
+                    writer.run(index);
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertTotalMatchesRows() {
+        assertThat(productStockTotalRepository.findTotalQuantity(product.getId()))
+                .contains(warehouseStockRepository.getTotalStockByProductId(product.getId()));
+    }
+
+    private int quantity(Warehouse warehouse) {
+        return warehouseStockRepository.findQuantity(warehouse.getId(), product.getId()).orElse(0);
+    }
+
+    private StockMovementRequest request(MovementType type, Long fromId, Long toId, int quantity) {
+        return StockMovementRequest.builder()
+                .productId(product.getId())
+                .fromWarehouseId(fromId)
+                .toWarehouseId(toId)
+                .type(type)
+                .quantity(quantity)
+                .reference("STRESS")
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void run(int index);
+    }
+}
@@ -1,13 +1,21 @@
 package com.warehouse.inventory.service;
 
+import com.warehouse.inventory.dto.request.StockMovementRequest;
+import com.warehouse.inventory.dto.response.StockMovementBatchResponse;
+import com.warehouse.inventory.entity.Product;
+import com.warehouse.inventory.entity.StockMovement;
+import com.warehouse.inventory.entity.Warehouse;
+import com.warehouse.inventory.enums.MovementType;
+import com.warehouse.inventory.event.StockChangedEvent;
+import com.warehouse.inventory.event.StockMovementsEvent;
 import com.warehouse.inventory.exception.InsufficientStockException;
-import com.warehouse.inventory.model.MovementType;
-import com.warehouse.inventory.model.Product;
-import com.warehouse.inventory.model.StockMovement;
-import com.warehouse.inventory.model.Warehouse;
-import com.warehouse.inventory.model.WarehouseStock;
+import com.warehouse.inventory.repository.LockedStock;
+import com.warehouse.inventory.repository.ProductRepository;
+import com.warehouse.inventory.repository.StockKey;
 import com.warehouse.inventory.repository.StockMovementRepository;
+import com.warehouse.inventory.repository.WarehouseRepository;
 import com.warehouse.inventory.repository.WarehouseStockRepository;
+import com.warehouse.inventory.repository.projection.StockLevel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,13 +23,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,155 +48,341 @@ class StockMovementServiceTest {
     @Mock
     private StockMovementRepository stockMovementRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
     @Mock
     private WarehouseStockRepository warehouseStockRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private StockMovementService stockMovementService;
 
     private Product product;
     private Warehouse sourceWarehouse;
     private Warehouse destinationWarehouse;
-    private WarehouseStock sourceStock;
-    private WarehouseStock destinationStock;
 
     @BeforeEach
     void setUp() {
-        product = new Product();
-        product.setId(1L);
-        product.setName("Wireless Mouse");
-        product.setSku("ELEC-001");
-
-        sourceWarehouse = new Warehouse();
-        sourceWarehouse.setId(1L);
-        sourceWarehouse.setName("Main Warehouse");
-        sourceWarehouse.setLocation("New York");
-
-        destinationWarehouse = new Warehouse();
-        destinationWarehouse.setId(2L);
-        destinationWarehouse.setName("Secondary Warehouse");
-        destinationWarehouse.setLocation("Chicago");
-
-        sourceStock = new WarehouseStock();
-        sourceStock.setId(1L);
-        sourceStock.setProduct(product);
-        sourceStock.setWarehouse(sourceWarehouse);
-        sourceStock.setQuantity(100);
-
-        destinationStock = new WarehouseStock();
-        destinationStock.setId(2L);
-        destinationStock.setProduct(product);
-        destinationStock.setWarehouse(destinationWarehouse);
-        destinationStock.setQuantity(50);
+        product = Product.builder()
+                .id(1L)
+                .name("Wireless Mouse")
+                .sku("ELEC-001")
+                .minStockLevel(10)
+                .build();
+
+        sourceWarehouse = Warehouse.builder()
+                .id(1L)
+                .name("Main Warehouse")
+                .build();
+
+        destinationWarehouse = Warehouse.builder()
+                .id(2L)
+                .name("Secondary Warehouse")
+                .build();
+
+        lenient().when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        lenient().when(warehouseRepository.getReferenceById(1L)).thenReturn(sourceWarehouse);
+        lenient().when(warehouseRepository.getReferenceById(2L)).thenReturn(destinationWarehouse);
+        lenient().when(stockMovementRepository.save(any(StockMovement.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static StockLevel level(int quantity, int totalStock) {
+        return new StockLevel() {
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Integer getTotalStock() {
+                return totalStock;
+            }
+        };
     }
 
     @Test
-    @DisplayName("processMovement IN should increase warehouse stock quantity")
+    @DisplayName("processMovement IN should apply the delta with a single upsert")
     void test_processMovement_IN() {
-        StockMovement movement = new StockMovement();
-        movement.setProduct(product);
-        movement.setWarehouse(sourceWarehouse);
-        movement.setMovementType(MovementType.IN);
-        movement.setQuantity(25);
-        movement.setReference("PO-2024-001");
-        movement.setTimestamp(LocalDateTime.now());
+        StockMovementRequest request = StockMovementRequest.builder()
+                .productId(1L)
+                .toWarehouseId(1L)
+                .type(MovementType.IN)
+                .quantity(25)
+                .reference("PO-2024-001")
+                .build();
 
-        when(warehouseStockRepository.findByProductAndWarehouse(product, sourceWarehouse))
-                .thenReturn(Optional.of(sourceStock));
-        when(warehouseStockRepository.save(any(WarehouseStock.class))).thenReturn(sourceStock);
-        when(stockMovementRepository.save(any(StockMovement.class))).thenReturn(movement);
+        when(warehouseStockRepository.addStock(1L, 1L, 25)).thenReturn(level(125, 175));
 
-        StockMovement result = stockMovementService.processMovement(movement);
+        StockMovement result = stockMovementService.processMovement(request);
 
         assertThat(result).isNotNull();
-        assertThat(result.getMovementType()).isEqualTo(MovementType.IN);
-        verify(warehouseStockRepository, times(1)).save(argThat(stock ->
-                stock.getQuantity() == 125
-        ));
-        verify(stockMovementRepository, times(1)).save(movement);
+        assertThat(result.getType()).isEqualTo(MovementType.IN);
+        assertThat(result.getToWarehouse()).isEqualTo(sourceWarehouse);
+        verify(warehouseStockRepository, times(1)).addStock(1L, 1L, 25);
+        verify(warehouseStockRepository, never()).getTotalStockByProductId(anyLong());
+        verify(stockMovementRepository, times(1)).save(any(StockMovement.class));
+        verify(eventPublisher, times(1)).publishEvent(new StockChangedEvent(Set.of(1L)));
+    }
+
+    @Test
+    @DisplayName("processMovement IN should not record a source warehouse the type does not use")
+    void test_processMovement_IN_ignoresSourceWarehouse() {
+        StockMovementRequest request = StockMovementRequest.builder()
+                .productId(1L)
+                .fromWarehouseId(999L)
+                .toWarehouseId(1L)
+                .type(MovementType.IN)
+                .quantity(25)
+                .build();
+
+        when(warehouseStockRepository.addStock(1L, 1L, 25)).thenReturn(level(125, 175));
+
+        StockMovement result = stockMovementService.processMovement(request);
+
+        assertThat(result.getFromWarehouse()).isNull();
+        assertThat(result.getToWarehouse()).isEqualTo(sourceWarehouse);
+        verify(warehouseRepository, never()).getReferenceById(999L);
     }
 
     @Test
     @DisplayName("processMovement OUT with sufficient stock should decrease quantity")
     void test_processMovement_OUT_sufficient() {
-        StockMovement movement = new StockMovement();
-        movement.setProduct(product);
-        movement.setWarehouse(sourceWarehouse);
-        movement.setMovementType(MovementType.OUT);
-        movement.setQuantity(30);
-        movement.setReference("SO-2024-001");
-        movement.setTimestamp(LocalDateTime.now());
+        StockMovementRequest request = StockMovementRequest.builder()
+                .productId(1L)
+                .fromWarehouseId(1L)
+                .type(MovementType.OUT)
+                .quantity(30)
+                .reference("SO-2024-001")
+                .build();
 
-        when(warehouseStockRepository.findByProductAndWarehouse(product, sourceWarehouse))
-                .thenReturn(Optional.of(sourceStock));
-        when(warehouseStockRepository.save(any(WarehouseStock.class))).thenReturn(sourceStock);
-        when(stockMovementRepository.save(any(StockMovement.class))).thenReturn(movement);
+        when(warehouseStockRepository.removeStock(1L, 1L, 30)).thenReturn(Optional.of(level(70, 120)));
 
-        StockMovement result = stockMovementService.processMovement(movement);
+        StockMovement result = stockMovementService.processMovement(request);
 
         assertThat(result).isNotNull();
-        assertThat(result.getMovementType()).isEqualTo(MovementType.OUT);
-        verify(warehouseStockRepository, times(1)).save(argThat(stock ->
-                stock.getQuantity() == 70
-        ));
-        verify(stockMovementRepository, times(1)).save(movement);
+        assertThat(result.getType()).isEqualTo(MovementType.OUT);
+        verify(warehouseStockRepository, times(1)).removeStock(1L, 1L, 30);
+        verify(stockMovementRepository, times(1)).save(any(StockMovement.class));
     }
 
     @Test
     @DisplayName("processMovement OUT with insufficient stock should throw InsufficientStockException")
     void test_processMovement_OUT_insufficient() {
-        StockMovement movement = new StockMovement();
-        movement.setProduct(product);
-        movement.setWarehouse(sourceWarehouse);
-        movement.setMovementType(MovementType.OUT);
-        movement.setQuantity(150);
-        movement.setReference("SO-2024-002");
-        movement.setTimestamp(LocalDateTime.now());
-
-        when(warehouseStockRepository.findByProductAndWarehouse(product, sourceWarehouse))
-                .thenReturn(Optional.of(sourceStock));
-
-        assertThatThrownBy(() -> stockMovementService.processMovement(movement))
+        StockMovementRequest request = StockMovementRequest.builder()
+                .productId(1L)
+                .fromWarehouseId(1L)
+                .type(MovementType.OUT)
+                .quantity(150)
+                .reference("SO-2024-002")
+                .build();
+
+        when(warehouseStockRepository.removeStock(1L, 1L, 150)).thenReturn(Optional.empty());
+        when(warehouseRepository.existsById(1L)).thenReturn(true);
+        when(warehouseStockRepository.findQuantity(1L, 1L)).thenReturn(Optional.of(100));
+
+        assertThatThrownBy(() -> stockMovementService.processMovement(request))
                 .isInstanceOf(InsufficientStockException.class)
-                .hasMessageContaining("Insufficient stock")
                 .hasMessageContaining("Wireless Mouse")
-                .hasMessageContaining("Main Warehouse");
+                .hasMessageContaining("100");
 
-        verify(warehouseStockRepository, never()).save(any(WarehouseStock.class));
         verify(stockMovementRepository, never()).save(any(StockMovement.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     @DisplayName("processMovement TRANSFER should move stock between warehouses")
     void test_processMovement_TRANSFER() {
-        StockMovement movement = new StockMovement();
-        movement.setProduct(product);
-        movement.setWarehouse(sourceWarehouse);
-        movement.setDestinationWarehouse(destinationWarehouse);
-        movement.setMovementType(MovementType.TRANSFER);
-        movement.setQuantity(20);
-        movement.setReference("TR-2024-001");
-        movement.setTimestamp(LocalDateTime.now());
-
-        when(warehouseStockRepository.findByProductAndWarehouse(product, sourceWarehouse))
-                .thenReturn(Optional.of(sourceStock));
-        when(warehouseStockRepository.findByProductAndWarehouse(product, destinationWarehouse))
-                .thenReturn(Optional.of(destinationStock));
-        when(warehouseStockRepository.save(any(WarehouseStock.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-        when(stockMovementRepository.save(any(StockMovement.class))).thenReturn(movement);
+        StockMovementRequest request = StockMovementRequest.builder()
+                .productId(1L)
+                .fromWarehouseId(1L)
+                .toWarehouseId(2L)
+                .type(MovementType.TRANSFER)
+                .quantity(20)
+                .reference("TR-2024-001")
+                .build();
 
-        StockMovement result = stockMovementService.processMovement(movement);
+        when(warehouseStockRepository.transferOut(1L, 1L, 20)).thenReturn(Optional.of(level(80, 150)));
+        when(warehouseStockRepository.transferIn(2L, 1L, 20)).thenReturn(level(70, 150));
+
+        StockMovement result = stockMovementService.processMovement(request);
 
         assertThat(result).isNotNull();
-        assertThat(result.getMovementType()).isEqualTo(MovementType.TRANSFER);
-
-        verify(warehouseStockRepository, times(1)).save(argThat(stock ->
-                stock.getWarehouse().equals(sourceWarehouse) && stock.getQuantity() == 80
-        ));
-        verify(warehouseStockRepository, times(1)).save(argThat(stock ->
-                stock.getWarehouse().equals(destinationWarehouse) && stock.getQuantity() == 70
-        ));
-        verify(stockMovementRepository, times(1)).save(movement);
+        assertThat(result.getType()).isEqualTo(MovementType.TRANSFER);
+        assertThat(result.getFromWarehouse()).isEqualTo(sourceWarehouse);
+        assertThat(result.getToWarehouse()).isEqualTo(destinationWarehouse);
+        verify(warehouseStockRepository, times(1)).transferOut(1L, 1L, 20);
+        verify(warehouseStockRepository, times(1)).transferIn(2L, 1L, 20);
+        verify(warehouseStockRepository, never()).removeStock(anyLong(), anyLong(), anyInt());
+        verify(warehouseStockRepository, never()).addStock(anyLong(), anyLong(), anyInt());
+        verify(stockMovementRepository, times(1)).save(any(StockMovement.class));
+    }
+
+    @Test
+    @DisplayName("processMovement ADJUSTMENT should apply the difference from the locked quantity to the total")
+    void test_processMovement_ADJUSTMENT() {
+        StockMovementRequest request = StockMovementRequest.builder()
+                .productId(1L)
+                .toWarehouseId(1L)
+                .type(MovementType.ADJUSTMENT)
+                .quantity(40)
+                .build();
+
+        StockKey key = new StockKey(1L, 1L);
+        when(warehouseStockRepository.lockStock(Collections.singleton(key)))
+                .thenReturn(new LockedStock(Map.of(key, 55), Set.of()));
+        when(warehouseStockRepository.setStock(1L, 1L, 40, 55)).thenReturn(level(40, 85));
+
+        stockMovementService.processMovement(request);
+
+        verify(warehouseStockRepository, times(1)).setStock(1L, 1L, 40, 55);
+    }
+
+    @Test
+    @DisplayName("processMovement should hand the movement to the alert pipeline instead of raising alerts")
+    void test_processMovement_publishesMovementForAlerts() {
+        StockMovementRequest request = StockMovementRequest.builder()
+                .productId(1L)
+                .fromWarehouseId(1L)
+                .type(MovementType.OUT)
+                .quantity(5)
+                .build();
+
+        when(warehouseStockRepository.removeStock(1L, 1L, 5)).thenReturn(Optional.of(level(3, 8)));
+
+        stockMovementService.processMovement(request);
+
+        verify(eventPublisher, times(1)).publishEvent(new StockMovementsEvent(Collections.singletonList(
+                new StockMovementsEvent.Movement(1L, "Wireless Mouse", 10, 1L, MovementType.OUT, 5))));
+        verify(warehouseStockRepository, never()).getTotalStockByProductId(anyLong());
+        verify(warehouseStockRepository, never()).addStock(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("processBatch should coalesce deltas per stock row and report failures per item")
+    void test_processBatch_coalescesAndReportsPerItem() {
+        ReflectionTestUtils.setField(stockMovementService, "maxBatchSize", 100);
+        when(productRepository.findAllById(any())).thenReturn(Collections.singletonList(product));
+        when(warehouseRepository.findAllById(any())).thenReturn(Arrays.asList(sourceWarehouse, destinationWarehouse));
+        when(warehouseStockRepository.lockStock(any())).thenReturn(new LockedStock(Map.of(
+                new StockKey(1L, 1L), 10,
+                new StockKey(2L, 1L), 0), Set.of(new StockKey(2L, 1L))));
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<StockMovementRequest> requests = Arrays.asList(
+                StockMovementRequest.builder().productId(1L).toWarehouseId(1L)
+                        .type(MovementType.IN).quantity(5).build(),
+                StockMovementRequest.builder().productId(1L).fromWarehouseId(1L)
+                        .type(MovementType.OUT).quantity(12).build(),
+                StockMovementRequest.builder().productId(1L).fromWarehouseId(1L)
+                        .type(MovementType.OUT).quantity(20).build(),
+                StockMovementRequest.builder().productId(1L).fromWarehouseId(1L).toWarehouseId(2L)
+                        .type(MovementType.TRANSFER).quantity(3).build(),
+                StockMovementRequest.builder().productId(99L).toWarehouseId(1L)
+                        .type(MovementType.IN).quantity(1).build());
+
+        StockMovementBatchResponse response = stockMovementService.processBatch(requests);
+
+        assertThat(response.getTotal()).isEqualTo(5);
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(StockMovementBatchResponse.ItemResult::isSuccess)
+                .containsExactly(true, true, false, true, false);
+        assertThat(response.getResults().get(2).getMessage()).contains("Wireless Mouse");
+
+        // 10 + 5 - 12 - 3 = 0 in warehouse 1, 0 + 3 in warehouse 2: one write per row
+        verify(warehouseStockRepository, times(1)).lockStock(any());
+        verify(warehouseStockRepository, times(1)).updateQuantities(Map.of(
+                new StockKey(1L, 1L), 0,
+                new StockKey(2L, 1L), 3));
+        // Net change for the product is +5 - 12 = -7 (the transfer nets out), applied once
+        verify(warehouseStockRepository, times(1)).addToProductTotals(Map.of(1L, -7));
+        verify(stockMovementRepository, times(1)).saveAll(argThat(movements ->
+                ((List<StockMovement>) movements).size() == 3));
+        verify(warehouseStockRepository, never()).addStock(anyLong(), anyLong(), anyInt());
+        // The row created for warehouse 2 received the transfer and stays
+        verify(warehouseStockRepository, never()).deleteEmptyStock(any());
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof StockMovementsEvent
+                && ((StockMovementsEvent) event).getMovements().size() == 3));
+        verify(eventPublisher, times(1)).publishEvent(new StockChangedEvent(Set.of(1L)));
+    }
+
+    @Test
+    @DisplayName("processBatch should bump the movement version even when movements net out")
+    void test_processBatch_netZeroBumpsMovementVersion() {
+        ReflectionTestUtils.setField(stockMovementService, "maxBatchSize", 100);
+        when(productRepository.findAllById(any())).thenReturn(Collections.singletonList(product));
+        when(warehouseRepository.findAllById(any())).thenReturn(Collections.singletonList(sourceWarehouse));
+        when(warehouseStockRepository.lockStock(any()))
+                .thenReturn(new LockedStock(Map.of(new StockKey(1L, 1L), 10), Set.of()));
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        stockMovementService.processBatch(Arrays.asList(
+                StockMovementRequest.builder().productId(1L).toWarehouseId(1L)
+                        .type(MovementType.IN).quantity(4).build(),
+                StockMovementRequest.builder().productId(1L).fromWarehouseId(1L)
+                        .type(MovementType.OUT).quantity(4).build()));
+
+        verify(warehouseStockRepository, never()).updateQuantities(any());
+        verify(warehouseStockRepository, times(1)).addToProductTotals(Map.of(1L, 0));
+    }
+
+    @Test
+    @DisplayName("processBatch should delete rows the lock created only for items that failed")
+    void test_processBatch_failedWithdrawal_leavesNoEmptyRow() {
+        ReflectionTestUtils.setField(stockMovementService, "maxBatchSize", 100);
+        when(productRepository.findAllById(any())).thenReturn(Collections.singletonList(product));
+        when(warehouseRepository.findAllById(any())).thenReturn(Arrays.asList(sourceWarehouse, destinationWarehouse));
+        when(warehouseStockRepository.lockStock(any())).thenReturn(new LockedStock(Map.of(
+                new StockKey(1L, 1L), 0,
+                new StockKey(2L, 1L), 0), Set.of(new StockKey(1L, 1L), new StockKey(2L, 1L))));
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StockMovementBatchResponse response = stockMovementService.processBatch(Arrays.asList(
+                StockMovementRequest.builder().productId(1L).fromWarehouseId(1L)
+                        .type(MovementType.OUT).quantity(5).build(),
+                StockMovementRequest.builder().productId(1L).toWarehouseId(2L)
+                        .type(MovementType.ADJUSTMENT).quantity(3).build()));
+
+        assertThat(response.getResults()).extracting(StockMovementBatchResponse.ItemResult::isSuccess)
+                .containsExactly(false, true);
+        // The adjusted row stays; the row created for the failed OUT does not
+        verify(warehouseStockRepository, times(1)).deleteEmptyStock(Set.of(new StockKey(1L, 1L)));
+    }
+
+    @Test
+    @DisplayName("processBatch TRANSFER should leave the product total alone, like processMovement")
+    void test_processBatch_TRANSFER_matchesSinglePath() {
+        StockMovementRequest transfer = StockMovementRequest.builder()
+                .productId(1L)
+                .fromWarehouseId(1L)
+                .toWarehouseId(2L)
+                .type(MovementType.TRANSFER)
+                .quantity(20)
+                .build();
+
+        when(warehouseStockRepository.transferOut(1L, 1L, 20)).thenReturn(Optional.of(level(80, 150)));
+        when(warehouseStockRepository.transferIn(2L, 1L, 20)).thenReturn(level(70, 150));
+        stockMovementService.processMovement(transfer);
+
+        ReflectionTestUtils.setField(stockMovementService, "maxBatchSize", 100);
+        when(productRepository.findAllById(any())).thenReturn(Collections.singletonList(product));
+        when(warehouseRepository.findAllById(any())).thenReturn(Arrays.asList(sourceWarehouse, destinationWarehouse));
+        when(warehouseStockRepository.lockStock(any())).thenReturn(new LockedStock(Map.of(
+                new StockKey(1L, 1L), 100,
+                new StockKey(2L, 1L), 50), Set.of()));
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        stockMovementService.processBatch(Collections.singletonList(transfer));
+
+        verify(warehouseStockRepository, times(1)).updateQuantities(Map.of(
+                new StockKey(1L, 1L), 80,
+                new StockKey(2L, 1L), 70));
+        // Neither path touches product_stock_totals, so neither bumps the movement version
+        verify(warehouseStockRepository, never()).addToProductTotals(any());
     }
 }
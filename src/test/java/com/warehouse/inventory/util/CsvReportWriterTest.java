@@ -0,0 +1,55 @@
+package com.warehouse.inventory.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CsvReportWriter Unit Tests")
+class CsvReportWriterTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private String written() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Fields with separators, quotes or line breaks should be quoted and nulls left empty")
+    void test_quoting() throws IOException {
+        CsvReportWriter writer = new CsvReportWriter(out);
+        writer.writeRow("Kho A, tầng 2", "Ống \"PVC\"", "dòng 1\ndòng 2", "a\rb", null, 5, new BigDecimal("12.50"), "Bình thường");
+        writer.close();
+
+        assertThat(written()).isEqualTo("﻿\"Kho A, tầng 2\",\"Ống \"\"PVC\"\"\",\"dòng 1\ndòng 2\",\"a\rb\",,5,12.50,Bình thường\r\n");
+    }
+
+    @Test
+    @DisplayName("The BOM should be written once, ahead of the first row")
+    void test_bomOnce() throws IOException {
+        CsvReportWriter writer = new CsvReportWriter(out);
+        writer.writeRow("SKU", "Số lượng");
+        writer.writeRow("EL-001", 3);
+        writer.close();
+
+        byte[] bytes = out.toByteArray();
+        assertThat(bytes).startsWith(0xEF, 0xBB, 0xBF);
+        assertThat(written()).isEqualTo("﻿SKU,Số lượng\r\nEL-001,3\r\n");
+    }
+
+    @Test
+    @DisplayName("An aborted export should not flush the buffered rows")
+    void test_abort_dropsBufferedRows() throws IOException {
+        CsvReportWriter writer = new CsvReportWriter(out);
+        writer.writeRow("SKU", "Số lượng");
+        writer.writeRow("EL-001", 3);
+        writer.abort();
+
+        assertThat(out.size()).isZero();
+    }
+}
@@ -0,0 +1,49 @@
+package com.warehouse.inventory.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DemandSeries Unit Tests")
+class DemandSeriesTest {
+
+    private static final LocalDate END = LocalDate.of(2024, 3, 10);
+
+    @Test
+    @DisplayName("Series should cover the window ending on the given day, zero-filled")
+    void test_window_zeroFilled() {
+        DemandSeries series = new DemandSeries(END, 7);
+
+        assertThat(series.length()).isEqualTo(7);
+        assertThat(series.getStart()).isEqualTo(LocalDate.of(2024, 3, 4));
+        assertThat(series.dayAt(6)).isEqualTo(END);
+        assertThat(series.demand()).containsOnly(0.0);
+    }
+
+    @Test
+    @DisplayName("add should place totals by day, accumulate, and ignore days outside the window")
+    void test_add_indexesByDay() {
+        DemandSeries series = new DemandSeries(END, 7);
+
+        series.add(LocalDate.of(2024, 3, 4), 10, 2);
+        series.add(END, 0, 5);
+        series.add(END, 1, 3);
+        series.add(LocalDate.of(2024, 3, 3), 100, 100);
+        series.add(LocalDate.of(2024, 3, 11), 100, 100);
+
+        assertThat(series.quantityInAt(0)).isEqualTo(10);
+        assertThat(series.demand()).containsExactly(2, 0, 0, 0, 0, 0, 8);
+        assertThat(series.quantityInAt(6)).isEqualTo(1);
+        assertThat(series.totalOut()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Series should reject an empty window")
+    void test_emptyWindow_rejected() {
+        assertThatThrownBy(() -> new DemandSeries(END, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
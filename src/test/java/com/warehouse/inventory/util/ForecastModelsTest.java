@@ -0,0 +1,77 @@
+package com.warehouse.inventory.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("ForecastModels Unit Tests")
+class ForecastModelsTest {
+
+    // Weekday demand of 10 with weekends at 2
+    private static double[] weekly(int weeks) {
+        double[] demand = new double[weeks * ForecastModels.WEEK];
+        for (int i = 0; i < demand.length; i++) {
+            demand[i] = i % ForecastModels.WEEK >= 5 ? 2 : 10;
+        }
+        return demand;
+    }
+
+    @Test
+    @DisplayName("Moving average should forecast the mean of the last window")
+    void test_movingAverage_lastWindow() {
+        double[] demand = {100, 100, 4, 6, 5};
+
+        ForecastModels.Result result = ForecastModels.movingAverage(demand, 3, 4);
+
+        assertThat(result.getModel()).isEqualTo("moving_average");
+        assertThat(result.getPredictions()).containsOnly(5.0);
+    }
+
+    @Test
+    @DisplayName("Holt-Winters should carry the weekly pattern into the forecast")
+    void test_holtWinters_weeklySeasonality() {
+        double[] demand = weekly(8);
+
+        ForecastModels.Result result = ForecastModels.holtWinters(demand, ForecastModels.WEEK, 14);
+
+        assertThat(result.getModel()).isEqualTo("holt_winters");
+        assertThat(result.getMeanAbsoluteError()).isLessThan(0.5);
+        double[] predictions = result.getPredictions();
+        // The series ends on day 6 of the week, so the forecast starts on a weekday
+        for (int h = 0; h < predictions.length; h++) {
+            double expected = h % ForecastModels.WEEK >= 5 ? 2 : 10;
+            assertThat(predictions[h]).isCloseTo(expected, within(0.5));
+        }
+    }
+
+    @Test
+    @DisplayName("Croston should forecast size over interval for intermittent demand")
+    void test_croston_intermittentRate() {
+        double[] demand = new double[60];
+        for (int i = 3; i < demand.length; i += 4) {
+            demand[i] = 8;
+        }
+
+        ForecastModels.Result result = ForecastModels.croston(demand, 0.1, 7);
+
+        assertThat(result.getModel()).isEqualTo("croston");
+        // 8 every 4 days is 2 per day, less the 5% SBA correction
+        assertThat(result.getPredictions()).containsOnly(new double[]{1.9}, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("forecast should pick the model from the shape of the series")
+    void test_forecast_selectsModel() {
+        double[] intermittent = new double[30];
+        intermittent[5] = 3;
+        intermittent[20] = 4;
+
+        assertThat(ForecastModels.forecast(new double[30], 7).getModel()).isEqualTo("none");
+        assertThat(ForecastModels.forecast(new double[30], 7).getPredictions()).containsOnly(0.0);
+        assertThat(ForecastModels.forecast(intermittent, 7).getModel()).isEqualTo("croston");
+        assertThat(ForecastModels.forecast(weekly(4), 7).getModel()).isEqualTo("holt_winters");
+        assertThat(ForecastModels.forecast(new double[]{3, 4, 5}, 7).getModel()).isEqualTo("moving_average");
+    }
+}
@@ -0,0 +1,46 @@
+package com.warehouse.inventory.util;
+
+import com.warehouse.inventory.exception.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PageCursor Unit Tests")
+class PageCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 10, 14, 30, 5, 123000000);
+
+    @Test
+    @DisplayName("Cursors should decode back to the position they were encoded from")
+    void test_roundTrip() {
+        assertThat(PageCursor.decodeId(PageCursor.of(42L).encode())).isEqualTo(PageCursor.of(42L));
+        assertThat(PageCursor.decodeTimestamped(PageCursor.of(CREATED_AT, 42L).encode()))
+                .isEqualTo(PageCursor.of(CREATED_AT, 42L));
+    }
+
+    @Test
+    @DisplayName("A cursor of the other kind should be rejected rather than read as an empty position")
+    void test_kindMismatch_rejected() {
+        String idCursor = PageCursor.of(42L).encode();
+        String timestampedCursor = PageCursor.of(CREATED_AT, 42L).encode();
+
+        assertThatThrownBy(() -> PageCursor.decodeTimestamped(idCursor))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining(idCursor);
+        assertThatThrownBy(() -> PageCursor.decodeId(timestampedCursor))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Malformed cursors should be rejected")
+    void test_malformed_rejected() {
+        assertThatThrownBy(() -> PageCursor.decodeId("not a cursor!"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decodeTimestamped("eA"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.warehouse.inventory.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("RollingStats Unit Tests")
+class RollingStatsTest {
+
+    @Test
+    @DisplayName("Early samples should give the exact mean and population variance")
+    void test_add_exactWhileWarmingUp() {
+        RollingStats stats = new RollingStats(0.1);
+        for (double value : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+            stats.add(value);
+        }
+
+        assertThat(stats.getCount()).isEqualTo(8);
+        assertThat(stats.getMean()).isCloseTo(5, within(1e-9));
+        assertThat(stats.getVariance()).isCloseTo(4, within(1e-9));
+        assertThat(stats.getStandardDeviation()).isCloseTo(2, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Later samples should be weighted by alpha so the mean follows a level shift")
+    void test_add_followsLevelShift() {
+        RollingStats stats = new RollingStats(0.1);
+        for (int i = 0; i < 100; i++) {
+            stats.add(10);
+        }
+        for (int i = 0; i < 50; i++) {
+            stats.add(20);
+        }
+
+        // An equally weighted mean would still be 13.3
+        assertThat(stats.getMean()).isGreaterThan(19.9);
+        assertThat(stats.getStandardDeviation()).isLessThan(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.warehouse.inventory.util;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("XlsxReportWriter Unit Tests")
+class XlsxReportWriterTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    @DisplayName("Numbers should become numeric cells, other values text, and nulls no cell at all")
+    void test_cellTypes() throws IOException {
+        XlsxReportWriter writer = new XlsxReportWriter(out, "Tồn kho");
+        writer.writeRow("SKU", "Số lượng", "Giá trị", "Ghi chú");
+        writer.writeRow("EL-001", 42, new BigDecimal("1250.75"), null);
+        writer.close();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Tồn kho");
+            assertThat(sheet.getLastRowNum()).isEqualTo(1);
+            Row row = sheet.getRow(1);
+            assertThat(row.getCell(0).getCellType()).isEqualTo(CellType.STRING);
+            assertThat(row.getCell(0).getStringCellValue()).isEqualTo("EL-001");
+            assertThat(row.getCell(1).getCellType()).isEqualTo(CellType.NUMERIC);
+            assertThat(row.getCell(1).getNumericCellValue()).isEqualTo(42.0);
+            assertThat(row.getCell(2).getNumericCellValue()).isEqualTo(1250.75);
+            assertThat(row.getCell(3)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Going past the row limit should fail, and aborting should write nothing")
+    void test_rowLimit() throws IOException {
+        XlsxReportWriter writer = new XlsxReportWriter(out, "Xuất nhập kho", 3);
+        writer.writeRow("Mã phiếu");
+        writer.writeRow(1L);
+        writer.writeRow(2L);
+
+        assertThatThrownBy(() -> writer.writeRow(3L))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("CSV");
+        writer.abort();
+
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("The default limit should be the one of the XLSX format")
+    void test_defaultLimit() {
+        assertThat(XlsxReportWriter.MAX_ROWS).isEqualTo(1_048_576);
+    }
+}